@@ -90,6 +90,9 @@ public final class MineGuiCore {
             for (MineGuiNamespaceContext context : MineGuiNamespaces.all()) {
                 context.viewSaves().flush();
             }
+            for (MineGuiNamespaceContext context : MineGuiNamespaces.all()) {
+                context.viewSaves().close();
+            }
         });
         lifecycleRegistered = true;
     }
@@ -51,8 +51,20 @@ public final class MineGuiExportStyleCommand {
         }
         McClientBridge.execute(() -> {
             int totalExports = 0;
+            int binaryTargets = 0;
             for (MineGuiNamespaceContext context : targets) {
                 totalExports += context.viewSaves().exportStyles(forceRewrite);
+                if (context.viewSaves().storesBinaryStyles()) {
+                    binaryTargets++;
+                }
+            }
+            String format;
+            if (binaryTargets == targets.size()) {
+                format = " binary";
+            } else if (binaryTargets == 0) {
+                format = " JSON";
+            } else {
+                format = "";
             }
             String namespaceList = targets.stream()
                     .map(MineGuiNamespaceContext::namespace)
@@ -63,6 +75,7 @@ public final class MineGuiExportStyleCommand {
             if (totalExports > 0) {
                 message = (forceRewrite ? "MineGui force-exported " : "MineGui exported ")
                         + totalExports
+                        + format
                         + " style file(s) for namespace"
                         + (multiple ? "s: " : ": ")
                         + resolvedList
@@ -63,6 +63,7 @@ public final class MineGuiReloadCommand {
 
     private static void reloadNamespace(MineGuiNamespaceContext context) {
         String namespace = context.namespace();
+        context.config().flush();
         if (!GlobalConfigManager.isConfigIgnored(namespace)) {
             GlobalConfigManager.load(namespace);
         } else {
@@ -17,15 +17,17 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public final class GlobalConfigManager {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String DEFAULT_NAMESPACE = MineGuiCore.ID;
-    private static final Map<String, ConfigState> CONTEXTS = new HashMap<>();
+    private static final Map<String, ConfigState> CONTEXTS = new ConcurrentHashMap<>();
     private static final Path CONFIG_ROOT = determineConfigRoot();
     private static final Path NAMESPACE_ROOT = CONFIG_ROOT.resolve(MineGuiCore.ID).normalize();
     private static final ConfigPathStrategy DEFAULT_STRATEGY = ConfigPathStrategies.sandboxed();
-    private static String defaultNamespace = DEFAULT_NAMESPACE;
+    private static volatile String defaultNamespace = DEFAULT_NAMESPACE;
 
     private GlobalConfigManager() {
     }
@@ -34,46 +36,39 @@ public final class GlobalConfigManager {
         defaultNamespace = sanitizeNamespace(namespace);
     }
 
-    public static synchronized String getDefaultNamespace() {
+    public static String getDefaultNamespace() {
         return defaultNamespace;
     }
 
-    public static synchronized boolean isAutoLoadEnabled() {
+    public static boolean isAutoLoadEnabled() {
         return isAutoLoadEnabled(defaultNamespace);
     }
 
-    public static synchronized void setAutoLoadEnabled(boolean enabled) {
+    public static void setAutoLoadEnabled(boolean enabled) {
         setAutoLoadEnabled(defaultNamespace, enabled);
     }
 
-    public static synchronized boolean isAutoLoadEnabled(String namespace) {
-        ConfigState state = context(namespace);
-        if (state.configIgnored) {
-            return false;
-        }
-        return state.autoLoadEnabled;
+    public static boolean isAutoLoadEnabled(String namespace) {
+        ConfigSnapshot snapshot = snapshot(namespace);
+        return !snapshot.configIgnored() && snapshot.autoLoadEnabled();
     }
 
     public static synchronized void setAutoLoadEnabled(String namespace, boolean enabled) {
         ConfigState state = context(namespace);
-        if (state.configIgnored) {
-            state.autoLoadEnabled = false;
-            return;
-        }
-        state.autoLoadEnabled = enabled;
+        state.autoLoadEnabled = !state.configIgnored && enabled;
+        publish(state);
     }
 
-    public static synchronized boolean isConfigIgnored() {
+    public static boolean isConfigIgnored() {
         return isConfigIgnored(defaultNamespace);
     }
 
-    public static synchronized void setConfigIgnored(boolean ignored) {
+    public static void setConfigIgnored(boolean ignored) {
         setConfigIgnored(defaultNamespace, ignored);
     }
 
-    public static synchronized boolean isConfigIgnored(String namespace) {
-        ConfigState state = context(namespace);
-        return state.configIgnored;
+    public static boolean isConfigIgnored(String namespace) {
+        return snapshot(namespace).configIgnored();
     }
 
     public static synchronized void setConfigIgnored(String namespace, boolean ignored) {
@@ -83,9 +78,10 @@ public final class GlobalConfigManager {
             state.autoLoadEnabled = false;
         }
         state.loaded = false;
+        publish(state);
     }
 
-    public static synchronized void ensureContext(String namespace) {
+    public static void ensureContext(String namespace) {
         context(namespace);
     }
 
@@ -93,28 +89,35 @@ public final class GlobalConfigManager {
         ConfigState state = context(namespace);
         state.strategy = strategy != null ? strategy : DEFAULT_STRATEGY;
         state.loaded = false;
-        state.activeConfigPath = state.defaultConfigFile;
-        state.activeViewSavesPath = state.defaultViewSavesDir;
+        resetActivePaths(state);
+        publish(state);
     }
 
-    public static synchronized ConfigPathStrategy getConfigPathStrategy() {
+    public static ConfigPathStrategy getConfigPathStrategy() {
         return getConfigPathStrategy(defaultNamespace);
     }
 
-    public static synchronized void setConfigPathStrategy(ConfigPathStrategy strategy) {
+    public static void setConfigPathStrategy(ConfigPathStrategy strategy) {
         setConfigPathStrategy(defaultNamespace, strategy);
     }
 
-    public static synchronized ConfigPathStrategy getConfigPathStrategy(String namespace) {
-        ConfigState state = context(namespace);
-        return state.strategy;
+    public static ConfigPathStrategy getConfigPathStrategy(String namespace) {
+        return snapshot(namespace).strategy();
     }
 
-    public static synchronized GlobalConfig getConfig() {
+    public static GlobalConfig getConfig() {
         return getConfig(defaultNamespace);
     }
 
-    public static synchronized GlobalConfig getConfig(String namespace) {
+    public static GlobalConfig getConfig(String namespace) {
+        ConfigSnapshot snapshot = snapshot(namespace);
+        if (!snapshot.needsLoad()) {
+            return snapshot.config();
+        }
+        return loadAndGetConfig(namespace);
+    }
+
+    private static synchronized GlobalConfig loadAndGetConfig(String namespace) {
         ConfigState state = context(namespace);
         if (!state.configIgnored && state.autoLoadEnabled && !state.loaded) {
             load(namespace);
@@ -122,17 +125,21 @@ public final class GlobalConfigManager {
         return state.config;
     }
 
-    public static synchronized void load() {
+    public static void load() {
         load(defaultNamespace);
     }
 
     public static synchronized void load(String namespace) {
         ConfigState state = context(namespace);
+        loadState(state);
+        publish(state);
+    }
+
+    private static void loadState(ConfigState state) {
         if (state.configIgnored) {
             state.config = new GlobalConfig();
             state.snapshot = cloneConfig(state.config);
-            state.activeConfigPath = state.defaultConfigFile;
-            state.activeViewSavesPath = state.defaultViewSavesDir;
+            resetActivePaths(state);
             state.loaded = true;
             return;
         }
@@ -174,27 +181,30 @@ public final class GlobalConfigManager {
 
         state.snapshot = snapshot;
         state.config = runtime;
-        state.activeConfigPath = runtimeConfigPath;
-        state.activeViewSavesPath = runtimeViewPath;
+        setActivePaths(state, runtimeConfigPath, runtimeViewPath);
         state.loaded = true;
     }
 
-    public static synchronized void save() {
+    public static void save() {
         save(defaultNamespace);
     }
 
     public static synchronized void save(String namespace) {
         ConfigState state = context(namespace);
+        saveState(state);
+        publish(state);
+    }
+
+    private static void saveState(ConfigState state) {
         if (state.configIgnored) {
             state.config = new GlobalConfig();
             state.snapshot = cloneConfig(state.config);
-            state.activeConfigPath = state.defaultConfigFile;
-            state.activeViewSavesPath = state.defaultViewSavesDir;
+            resetActivePaths(state);
             state.loaded = true;
             return;
         }
         if (state.autoLoadEnabled && !state.loaded) {
-            load(namespace);
+            loadState(state);
         }
 
         ensureViewPath(state.config);
@@ -206,87 +216,111 @@ public final class GlobalConfigManager {
         GlobalConfig payload = mergeForSave(state.config, state.snapshot, state.featureProfile);
         writeConfig(runtimeConfigPath, payload, state);
         state.snapshot = cloneConfig(payload);
-        state.activeConfigPath = runtimeConfigPath;
-        state.activeViewSavesPath = runtimeViewPath;
+        setActivePaths(state, runtimeConfigPath, runtimeViewPath);
         state.loaded = true;
     }
 
-    public static synchronized void reset() {
+    public static synchronized void update(String namespace, Consumer<GlobalConfig> updater) {
+        updater.accept(getConfig(namespace));
+    }
+
+    public static void reset() {
         reset(defaultNamespace);
     }
 
     public static synchronized void reset(String namespace) {
         ConfigState state = context(namespace);
-        if (state.configIgnored) {
-            state.config = new GlobalConfig();
-            state.snapshot = cloneConfig(state.config);
-            state.activeConfigPath = state.defaultConfigFile;
-            state.activeViewSavesPath = state.defaultViewSavesDir;
-            state.loaded = false;
-            return;
-        }
-
-        Path currentPath = resolveConfigPath(state, state.config);
-        deleteIfExists(currentPath);
-        if (!Objects.equals(currentPath, state.defaultConfigFile)) {
-            deleteIfExists(state.defaultConfigFile);
+        if (!state.configIgnored) {
+            Path currentPath = resolveConfigPath(state, state.config);
+            deleteIfExists(currentPath);
+            if (!Objects.equals(currentPath, state.defaultConfigFile)) {
+                deleteIfExists(state.defaultConfigFile);
+            }
         }
         state.config = new GlobalConfig();
         state.snapshot = cloneConfig(state.config);
-        state.activeConfigPath = state.defaultConfigFile;
-        state.activeViewSavesPath = state.defaultViewSavesDir;
+        resetActivePaths(state);
         state.loaded = false;
+        publish(state);
     }
 
-    public static synchronized Path getActiveConfigPath() {
+    public static Path getActiveConfigPath() {
         return getActiveConfigPath(defaultNamespace);
     }
 
-    public static synchronized Path getActiveConfigPath(String namespace) {
+    public static Path getActiveConfigPath(String namespace) {
+        ConfigSnapshot snapshot = snapshot(namespace);
+        if (snapshot.configIgnored()) {
+            return snapshot.defaultConfigFile();
+        }
+        if (!snapshot.needsLoad() && snapshot.configPathSource() != null
+                && snapshot.configPathSource().equals(snapshot.config().getConfigPath())) {
+            return snapshot.configPath();
+        }
+        return refreshActiveConfigPath(namespace);
+    }
+
+    private static synchronized Path refreshActiveConfigPath(String namespace) {
         ConfigState state = context(namespace);
         if (state.configIgnored) {
             return state.defaultConfigFile;
         }
         if (state.autoLoadEnabled && !state.loaded) {
-            load(namespace);
+            loadState(state);
         }
         state.activeConfigPath = resolveConfigPath(state, state.config);
+        state.activeConfigSource = state.config.getConfigPath();
+        publish(state);
         return state.activeConfigPath;
     }
 
-    public static synchronized Path getViewSavesDirectory() {
+    public static Path getViewSavesDirectory() {
         return getViewSavesDirectory(defaultNamespace);
     }
 
-    public static synchronized Path getViewSavesDirectory(String namespace) {
+    public static Path getViewSavesDirectory(String namespace) {
+        ConfigSnapshot snapshot = snapshot(namespace);
+        if (snapshot.configIgnored()) {
+            return snapshot.defaultViewSavesDir();
+        }
+        if (!snapshot.needsLoad() && snapshot.viewSavesPathSource() != null
+                && snapshot.viewSavesPathSource().equals(snapshot.config().getViewSavesPath())) {
+            return snapshot.viewSavesDirectory();
+        }
+        return refreshViewSavesDirectory(namespace);
+    }
+
+    private static synchronized Path refreshViewSavesDirectory(String namespace) {
         ConfigState state = context(namespace);
         if (state.configIgnored) {
             return state.defaultViewSavesDir;
         }
         if (state.autoLoadEnabled && !state.loaded) {
-            load(namespace);
+            loadState(state);
         }
         state.activeViewSavesPath = resolveViewSavesPath(state, state.config);
+        state.activeViewSavesSource = state.config.getViewSavesPath();
+        publish(state);
         return state.activeViewSavesPath;
     }
 
-    public static synchronized ConfigFeatureProfile getFeatureProfile() {
+    public static ConfigFeatureProfile getFeatureProfile() {
         return getFeatureProfile(defaultNamespace);
     }
 
-    public static synchronized void setFeatureProfile(ConfigFeatureProfile profile) {
+    public static void setFeatureProfile(ConfigFeatureProfile profile) {
         setFeatureProfile(defaultNamespace, profile);
     }
 
-    public static synchronized ConfigFeatureProfile getFeatureProfile(String namespace) {
-        ConfigState state = context(namespace);
-        return state.featureProfile;
+    public static ConfigFeatureProfile getFeatureProfile(String namespace) {
+        return snapshot(namespace).featureProfile();
     }
 
     public static synchronized void setFeatureProfile(String namespace, ConfigFeatureProfile profile) {
         ConfigState state = context(namespace);
         state.featureProfile = profile != null ? profile : ConfigFeatureProfile.all();
         state.loaded = false;
+        publish(state);
     }
 
     public static synchronized void setLoadFeatures(String namespace, Set<ConfigFeature> features) {
@@ -294,6 +328,7 @@ public final class GlobalConfigManager {
         ConfigFeatureProfile current = state.featureProfile;
         state.featureProfile = current.withLoadFeatures(features != null ? features : Set.of());
         state.loaded = false;
+        publish(state);
     }
 
     public static synchronized void setSaveFeatures(String namespace, Set<ConfigFeature> features) {
@@ -301,41 +336,90 @@ public final class GlobalConfigManager {
         ConfigFeatureProfile current = state.featureProfile;
         state.featureProfile = current.withSaveFeatures(features != null ? features : Set.of());
         state.loaded = false;
+        publish(state);
     }
 
     public static synchronized void enableFeature(String namespace, ConfigFeature feature) {
         ConfigState state = context(namespace);
         state.featureProfile = state.featureProfile.withFeature(feature);
         state.loaded = false;
+        publish(state);
     }
 
     public static synchronized void disableFeature(String namespace, ConfigFeature feature) {
         ConfigState state = context(namespace);
         state.featureProfile = state.featureProfile.withoutFeature(feature);
         state.loaded = false;
+        publish(state);
     }
 
-    public static synchronized boolean shouldLoadFeature(ConfigFeature feature) {
+    public static boolean shouldLoadFeature(ConfigFeature feature) {
         return shouldLoadFeature(defaultNamespace, feature);
     }
 
-    public static synchronized boolean shouldLoadFeature(String namespace, ConfigFeature feature) {
-        ConfigState state = context(namespace);
-        return state.featureProfile.shouldLoad(feature);
+    public static boolean shouldLoadFeature(String namespace, ConfigFeature feature) {
+        return (snapshot(namespace).loadMask() & featureBit(feature)) != 0;
     }
 
-    public static synchronized boolean shouldSaveFeature(ConfigFeature feature) {
+    public static boolean shouldSaveFeature(ConfigFeature feature) {
         return shouldSaveFeature(defaultNamespace, feature);
     }
 
-    public static synchronized boolean shouldSaveFeature(String namespace, ConfigFeature feature) {
-        ConfigState state = context(namespace);
-        return state.featureProfile.shouldSave(feature);
+    public static boolean shouldSaveFeature(String namespace, ConfigFeature feature) {
+        return (snapshot(namespace).saveMask() & featureBit(feature)) != 0;
+    }
+
+    private static ConfigSnapshot snapshot(String namespace) {
+        return context(namespace).published;
+    }
+
+    private static void publish(ConfigState state) {
+        ConfigFeatureProfile profile = state.featureProfile;
+        state.published = new ConfigSnapshot(
+                state.defaultConfigFile,
+                state.defaultViewSavesDir,
+                profile,
+                featureMask(profile.loadFeatures()),
+                featureMask(profile.saveFeatures()),
+                state.strategy,
+                state.autoLoadEnabled,
+                state.configIgnored,
+                state.loaded,
+                state.config,
+                state.activeConfigSource,
+                state.activeConfigPath,
+                state.activeViewSavesSource,
+                state.activeViewSavesPath
+        );
+    }
+
+    private static void resetActivePaths(ConfigState state) {
+        setActivePaths(state, state.defaultConfigFile, state.defaultViewSavesDir);
+    }
+
+    private static void setActivePaths(ConfigState state, Path configPath, Path viewSavesPath) {
+        state.activeConfigPath = configPath;
+        state.activeViewSavesPath = viewSavesPath;
+        state.activeConfigSource = null;
+        state.activeViewSavesSource = null;
+    }
+
+    private static int featureMask(Set<ConfigFeature> features) {
+        int mask = 0;
+        for (ConfigFeature feature : features) {
+            mask |= featureBit(feature);
+        }
+        return mask;
+    }
+
+    private static int featureBit(ConfigFeature feature) {
+        return feature != null ? 1 << feature.ordinal() : 0;
     }
 
     private static ConfigState context(String namespace) {
         String sanitized = sanitizeNamespace(namespace);
-        return CONTEXTS.computeIfAbsent(sanitized, ConfigState::new);
+        ConfigState existing = CONTEXTS.get(sanitized);
+        return existing != null ? existing : CONTEXTS.computeIfAbsent(sanitized, ConfigState::new);
     }
 
     private static String sanitizeNamespace(String namespace) {
@@ -610,11 +694,14 @@ public final class GlobalConfigManager {
         private GlobalConfig snapshot;
         private Path activeConfigPath;
         private Path activeViewSavesPath;
+        private String activeConfigSource;
+        private String activeViewSavesSource;
         private ConfigFeatureProfile featureProfile;
         private ConfigPathStrategy strategy;
         private boolean autoLoadEnabled;
         private boolean configIgnored;
         private boolean loaded;
+        private volatile ConfigSnapshot published;
 
         private ConfigState(String namespace) {
             this.namespace = namespace;
@@ -630,6 +717,28 @@ public final class GlobalConfigManager {
             this.autoLoadEnabled = true;
             this.configIgnored = false;
             this.loaded = false;
+            publish(this);
+        }
+    }
+
+    private record ConfigSnapshot(
+            Path defaultConfigFile,
+            Path defaultViewSavesDir,
+            ConfigFeatureProfile featureProfile,
+            int loadMask,
+            int saveMask,
+            ConfigPathStrategy strategy,
+            boolean autoLoadEnabled,
+            boolean configIgnored,
+            boolean loaded,
+            GlobalConfig config,
+            String configPathSource,
+            Path configPath,
+            String viewSavesPathSource,
+            Path viewSavesDirectory
+    ) {
+        boolean needsLoad() {
+            return !configIgnored && autoLoadEnabled && !loaded;
         }
     }
 }
@@ -29,16 +29,28 @@ public final class GlobalConfigNamespaceConfigStore implements NamespaceConfigSt
 
     @Override
     public void save(NamespaceConfig config) {
+        apply(config);
+        persist(config);
+    }
+
+    @Override
+    public void apply(NamespaceConfig config) {
+        Objects.requireNonNull(config, "config");
+        GlobalConfigManager.update(config.namespace(), globalConfig -> {
+            globalConfig.setViewport(config.viewportEnabled());
+            globalConfig.setDockspace(config.dockspaceEnabled());
+            globalConfig.setGlobalScale(config.globalScale());
+            globalConfig.setConfigPath(config.configPath());
+            globalConfig.setViewSavesPath(config.viewSavesPath());
+            ResourceId styleKey = config.globalStyleKey();
+            globalConfig.setGlobalStyleKey(styleKey != null ? styleKey.toString() : null);
+            globalConfig.setViewStyles(config.viewStyles());
+        });
+    }
+
+    @Override
+    public void persist(NamespaceConfig config) {
         Objects.requireNonNull(config, "config");
-        GlobalConfig globalConfig = GlobalConfigManager.getConfig(config.namespace());
-        globalConfig.setViewport(config.viewportEnabled());
-        globalConfig.setDockspace(config.dockspaceEnabled());
-        globalConfig.setGlobalScale(config.globalScale());
-        globalConfig.setConfigPath(config.configPath());
-        globalConfig.setViewSavesPath(config.viewSavesPath());
-        ResourceId styleKey = config.globalStyleKey();
-        globalConfig.setGlobalStyleKey(styleKey != null ? styleKey.toString() : null);
-        globalConfig.setViewStyles(config.viewStyles());
         GlobalConfigManager.save(config.namespace());
     }
 }
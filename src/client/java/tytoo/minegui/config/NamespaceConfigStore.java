@@ -4,4 +4,11 @@ public interface NamespaceConfigStore {
     NamespaceConfig load(String namespace);
 
     void save(NamespaceConfig config);
+
+    default void apply(NamespaceConfig config) {
+    }
+
+    default void persist(NamespaceConfig config) {
+        save(config);
+    }
 }
@@ -0,0 +1,83 @@
+package tytoo.minegui.imgui;
+
+import tytoo.minegui.config.NamespaceConfig;
+import tytoo.minegui.imgui.dock.DockspaceRenderState;
+import tytoo.minegui.runtime.MineGuiNamespaceContext;
+import tytoo.minegui.runtime.MineGuiNamespaces;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+final class FramePlan {
+    private static final Runnable[] NO_TASKS = new Runnable[0];
+
+    private final long generation;
+    private final NamespaceConfig config;
+    private final int windowX;
+    private final int windowY;
+    private final int windowWidth;
+    private final int windowHeight;
+    private final MineGuiNamespaceContext[] contexts;
+    private final DockspaceRenderState dockspace;
+    private final Runnable[] beforeWindowTasks;
+    private final Runnable[] beforeDockspaceTasks;
+    private final Runnable[] afterDockspaceTasks;
+
+    private FramePlan(long generation, NamespaceConfig config, int windowX, int windowY, int windowWidth, int windowHeight,
+                      MineGuiNamespaceContext[] contexts, DockspaceRenderState dockspace) {
+        this.generation = generation;
+        this.config = config;
+        this.windowX = windowX;
+        this.windowY = windowY;
+        this.windowWidth = windowWidth;
+        this.windowHeight = windowHeight;
+        this.contexts = contexts;
+        this.dockspace = dockspace;
+        this.beforeWindowTasks = dockspace != null ? dockspace.beforeWindowTasks().toArray(NO_TASKS) : NO_TASKS;
+        this.beforeDockspaceTasks = dockspace != null ? dockspace.beforeDockspaceTasks().toArray(NO_TASKS) : NO_TASKS;
+        this.afterDockspaceTasks = dockspace != null ? dockspace.afterDockspaceTasks().toArray(NO_TASKS) : NO_TASKS;
+    }
+
+    static FramePlan build(long generation, NamespaceConfig config, int windowX, int windowY, int windowWidth, int windowHeight) {
+        MineGuiNamespaceContext[] contexts = MineGuiNamespaces.all().toArray(new MineGuiNamespaceContext[0]);
+        Arrays.sort(contexts, Comparator.comparing(MineGuiNamespaceContext::namespace));
+        DockspaceRenderState dockspace = null;
+        if (config != null && config.dockspaceEnabled()) {
+            dockspace = DockspaceRenderState.createDefault(windowX, windowY, windowWidth, windowHeight);
+            for (MineGuiNamespaceContext context : contexts) {
+                context.dockspaceCustomizer().customize(dockspace);
+            }
+            dockspace.normalize();
+        }
+        return new FramePlan(generation, config, windowX, windowY, windowWidth, windowHeight, contexts, dockspace);
+    }
+
+    boolean matches(long generation, NamespaceConfig config, int windowX, int windowY, int windowWidth, int windowHeight) {
+        return this.generation == generation
+                && this.config == config
+                && this.windowX == windowX
+                && this.windowY == windowY
+                && this.windowWidth == windowWidth
+                && this.windowHeight == windowHeight;
+    }
+
+    MineGuiNamespaceContext[] contexts() {
+        return contexts;
+    }
+
+    DockspaceRenderState dockspace() {
+        return dockspace;
+    }
+
+    Runnable[] beforeWindowTasks() {
+        return beforeWindowTasks;
+    }
+
+    Runnable[] beforeDockspaceTasks() {
+        return beforeDockspaceTasks;
+    }
+
+    Runnable[] afterDockspaceTasks() {
+        return afterDockspaceTasks;
+    }
+}
@@ -7,12 +7,16 @@ import imgui.gl3.ImGuiImplGl3;
 import imgui.glfw.ImGuiImplGlfw;
 import imgui.internal.ImGuiContext;
 import lombok.Getter;
+import lombok.Setter;
 import org.lwjgl.glfw.GLFW;
 import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.config.GlobalConfigNamespaceConfigStore;
 import tytoo.minegui.config.NamespaceConfig;
 import tytoo.minegui.config.NamespaceConfigStore;
 import tytoo.minegui.imgui.dock.DockspaceRenderState;
+import tytoo.minegui.input.InputEventQueue;
+import tytoo.minegui.input.InputRouter;
+import tytoo.minegui.manager.UIManager;
 import tytoo.minegui.runtime.MineGuiNamespaceContext;
 import tytoo.minegui.runtime.MineGuiNamespaces;
 import tytoo.minegui.runtime.cursor.CursorPolicyRegistry;
@@ -21,21 +25,26 @@ import tytoo.minegui.util.ImGuiImageUtils;
 import tytoo.minegui.util.InputHelper;
 import tytoo.minegui.util.ResourceId;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-
 public class ImGuiLoader {
     private static final ImGuiImplGlfw imGuiGlfw = new ImGuiImplGlfw();
     private static final ImGuiImplGl3 imGuiGl3 = new ImGuiImplGl3();
     private static final NamespaceConfigStore DEFAULT_CONFIG_STORE = new GlobalConfigNamespaceConfigStore();
     private static final String GLSL_VERSION = "#version 150";
+    private static final long LAZY_ACTIVITY_WINDOW_NANOS = 250_000_000L;
     private static float appliedGlobalScale = Float.NaN;
+    private static FramePlan framePlan;
     @Getter
     private static volatile boolean contextInitialized;
     private static volatile boolean clientStarted;
     private static volatile boolean initializationInProgress;
     private static volatile boolean initializationFailed;
+    @Getter
+    @Setter
+    private static volatile boolean lazyRendering;
+    private static volatile long lastInputNanos;
+    private static long renderedRedrawRevision = -1L;
+    private static boolean renderedWithImGuiInput;
+    private static boolean frameAvailable;
 
     private static long windowHandle;
     private static int mcWindowWidth;
@@ -72,13 +81,22 @@ public class ImGuiLoader {
         if (!contextInitialized) {
             return;
         }
+        swapRuntimeFontAtlas();
+        if (canReuseLastFrame()) {
+            CursorPolicyRegistry.onFrameStart();
+            resubmitLastFrame();
+            return;
+        }
+        long redrawRevision = UIManager.redrawRevision();
         imGuiGlfw.newFrame();
         CursorPolicyRegistry.onFrameStart();
+        InputEventQueue.getInstance().drain(imGuiGlfw);
         ImGui.newFrame();
         NamespaceConfig defaultConfig = resolveDefaultConfig();
         applyGlobalScale(defaultConfig);
-        renderDockSpace(defaultConfig);
-        for (MineGuiNamespaceContext context : MineGuiNamespaces.all()) {
+        FramePlan plan = framePlan(defaultConfig);
+        renderDockSpace(plan);
+        for (MineGuiNamespaceContext context : plan.contexts()) {
             NamespaceConfig config = context.config().current();
             applyGlobalScale(config);
             context.style().apply();
@@ -86,7 +104,69 @@ public class ImGuiLoader {
         }
 
         ImGui.render();
-        endFrame();
+        InputRouter.getInstance().captureFrameState();
+        endFrame(plan);
+        FontLibrary.getInstance().releaseRetiredAtlas();
+        renderedRedrawRevision = redrawRevision;
+        renderedWithImGuiInput = CursorPolicyRegistry.wantsImGuiInput();
+        frameAvailable = true;
+    }
+
+    private static void swapRuntimeFontAtlas() {
+        FontLibrary fontLibrary = FontLibrary.getInstance();
+        fontLibrary.prepareRuntimeAtlas();
+        if (!fontLibrary.swapRuntimeAtlas()) {
+            return;
+        }
+        imGuiGl3.updateFontsTexture();
+        StyleManager.resetAllActiveFonts();
+        reapplyNamespaceStyles();
+        UIManager.requestRedraw();
+    }
+
+    private static boolean canReuseLastFrame() {
+        if (!lazyRendering || !frameAvailable) {
+            return false;
+        }
+        if (ImGui.getIO().hasConfigFlags(ImGuiConfigFlags.ViewportsEnable)) {
+            return false;
+        }
+        if (UIManager.redrawRevision() != renderedRedrawRevision) {
+            return false;
+        }
+        if (System.nanoTime() - lastInputNanos < LAZY_ACTIVITY_WINDOW_NANOS) {
+            return false;
+        }
+        if (InputRouter.getInstance().hasActiveInteraction() || CursorPolicyRegistry.wantsImGuiInput() != renderedWithImGuiInput) {
+            return false;
+        }
+        FramePlan plan = framePlan;
+        return plan != null && plan.matches(MineGuiNamespaces.generation(), resolveDefaultConfig(), mcWindowX, mcWindowY, mcWindowWidth, mcWindowHeight);
+    }
+
+    private static void resubmitLastFrame() {
+        for (MineGuiNamespaceContext context : framePlan.contexts()) {
+            context.viewSaves().onFrameRendered(false);
+        }
+        imGuiGl3.renderDrawData(ImGui.getDrawData());
+    }
+
+    public static void onMouseActivity(long window) {
+        if (windowHandle == 0L || window != windowHandle) {
+            return;
+        }
+        lastInputNanos = System.nanoTime();
+    }
+
+    private static FramePlan framePlan(NamespaceConfig config) {
+        long generation = MineGuiNamespaces.generation();
+        FramePlan plan = framePlan;
+        if (plan != null && plan.matches(generation, config, mcWindowX, mcWindowY, mcWindowWidth, mcWindowHeight)) {
+            return plan;
+        }
+        plan = FramePlan.build(generation, config, mcWindowX, mcWindowY, mcWindowWidth, mcWindowHeight);
+        framePlan = plan;
+        return plan;
     }
 
     public static void requestReload() {
@@ -121,6 +201,7 @@ public class ImGuiLoader {
             FontLibrary fontLibrary = FontLibrary.getInstance();
             fontLibrary.resetRuntime();
             StyleManager.resetAllActiveFonts();
+            StyleManager.invalidateNativeStyle();
             initializeImGui();
             fontLibrary.runRegistrationPhase(ImGui.getIO());
             fontLibrary.preloadRegisteredFonts();
@@ -134,6 +215,7 @@ public class ImGuiLoader {
             }
             ImGuiImageUtils.invalidateAll();
             reapplyNamespaceStyles();
+            applyPreloadedLayouts();
             fontLibrary.lockRegistration();
             contextInitialized = true;
             initializationFailed = false;
@@ -143,6 +225,11 @@ public class ImGuiLoader {
     }
 
     private static void teardownContext() {
+        frameAvailable = false;
+        framePlan = null;
+        InputRouter.getInstance().resetFrameState();
+        InputEventQueue.getInstance().clear();
+        FontLibrary.getInstance().discardRuntimeAtlas();
         imGuiGl3.dispose();
         imGuiGlfw.dispose();
         ImGuiContext context = ImGui.getCurrentContext();
@@ -152,34 +239,28 @@ public class ImGuiLoader {
         }
     }
 
-    private static void renderDockSpace(NamespaceConfig config) {
-        if (config == null || !config.dockspaceEnabled()) {
+    private static void renderDockSpace(FramePlan plan) {
+        DockspaceRenderState state = plan.dockspace();
+        if (state == null) {
             return;
         }
-        DockspaceRenderState state = DockspaceRenderState.createDefault(mcWindowX, mcWindowY, mcWindowWidth, mcWindowHeight);
-        List<MineGuiNamespaceContext> contexts = new ArrayList<>(MineGuiNamespaces.all());
-        contexts.sort(Comparator.comparing(MineGuiNamespaceContext::namespace));
-        for (MineGuiNamespaceContext context : contexts) {
-            context.dockspaceCustomizer().customize(state);
-        }
-        state.normalize();
         state.applyPlacement();
         int styleCount = state.applyStyleOverrides();
-        for (Runnable task : state.beforeWindowTasks()) {
+        for (Runnable task : plan.beforeWindowTasks()) {
             task.run();
         }
         ImGui.begin(state.windowTitle(), state.windowFlags());
         if (styleCount > 0) {
             ImGui.popStyleVar(styleCount);
         }
-        for (Runnable task : state.beforeDockspaceTasks()) {
+        for (Runnable task : plan.beforeDockspaceTasks()) {
             task.run();
         }
         if (state.isDockspaceEnabled()) {
             int dockspaceId = ImGui.getID(state.dockspaceId());
             ImGui.dockSpace(dockspaceId, state.dockspaceWidth(), state.dockspaceHeight(), state.dockspaceFlags());
         }
-        for (Runnable task : state.afterDockspaceTasks()) {
+        for (Runnable task : plan.afterDockspaceTasks()) {
             task.run();
         }
         ImGui.end();
@@ -222,11 +303,23 @@ public class ImGuiLoader {
         }
     }
 
-    private static void endFrame() {
-        for (MineGuiNamespaceContext context : MineGuiNamespaces.all()) {
-            context.viewSaves().onFrameRendered();
+    private static void applyPreloadedLayouts() {
+        for (MineGuiNamespaceContext contextHandle : MineGuiNamespaces.all()) {
+            contextHandle.viewSaves().applyPreloadedLayouts();
+        }
+    }
+
+    private static void endFrame(FramePlan plan) {
+        ImGuiIO io = ImGui.getIO();
+        boolean iniDirty = io.getWantSaveIniSettings();
+        if (iniDirty) {
+            io.setWantSaveIniSettings(false);
+        }
+        for (MineGuiNamespaceContext context : plan.contexts()) {
+            context.viewSaves().onFrameRendered(iniDirty);
         }
         imGuiGl3.renderDrawData(ImGui.getDrawData());
+        InputEventQueue.getInstance().onFrameSubmitted();
 
         if (ImGui.getIO().hasConfigFlags(ImGuiConfigFlags.ViewportsEnable)) {
             final long backupWindowPtr = GLFW.glfwGetCurrentContext();
@@ -237,17 +330,9 @@ public class ImGuiLoader {
     }
 
     private static ImFont configureDefaultFonts(ImGuiIO io) {
-        final ImFontConfig defaultConfig = new ImFontConfig();
-        try {
-            defaultConfig.setGlyphRanges(io.getFonts().getGlyphRangesCyrillic());
-            defaultConfig.setPixelSnapH(true);
-            io.getFonts().addFontDefault(defaultConfig);
-        } finally {
-            defaultConfig.destroy();
-        }
-
-        Fonts.registerDefaults(io);
         FontLibrary fontLibrary = FontLibrary.getInstance();
+        fontLibrary.addBuiltinDefaultFont(io.getFonts());
+        Fonts.registerDefaults(io);
         ImFont defaultFont = Fonts.ensure(fontLibrary.getDefaultFontKey());
         if (defaultFont != null) {
             io.setFontDefault(defaultFont);
@@ -281,6 +366,12 @@ public class ImGuiLoader {
         if (windowHandle == 0L || window != windowHandle) {
             return;
         }
+        lastInputNanos = System.nanoTime();
+        InputEventQueue queue = InputEventQueue.getInstance();
+        if (queue.isEnabled()) {
+            queue.enqueueScroll(imGuiGlfw, window, horizontal, vertical);
+            return;
+        }
         imGuiGlfw.scrollCallback(window, horizontal, vertical);
     }
 
@@ -288,7 +379,13 @@ public class ImGuiLoader {
         if (windowHandle == 0L || window != windowHandle) {
             return;
         }
+        lastInputNanos = System.nanoTime();
         int normalizedKey = InputHelper.toQwerty(key);
+        InputEventQueue queue = InputEventQueue.getInstance();
+        if (queue.isEnabled()) {
+            queue.enqueueKey(imGuiGlfw, window, normalizedKey, scancode, action, modifiers);
+            return;
+        }
         imGuiGlfw.keyCallback(window, normalizedKey, scancode, action, modifiers);
     }
 
@@ -296,6 +393,13 @@ public class ImGuiLoader {
         if (windowHandle == 0L || window != windowHandle) {
             return;
         }
+        lastInputNanos = System.nanoTime();
+        GlyphUsage.getInstance().recordCodePoint(codePoint);
+        InputEventQueue queue = InputEventQueue.getInstance();
+        if (queue.isEnabled()) {
+            queue.enqueueChar(imGuiGlfw, window, codePoint);
+            return;
+        }
         imGuiGlfw.charCallback(window, codePoint);
     }
 
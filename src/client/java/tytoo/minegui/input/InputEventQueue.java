@@ -0,0 +1,167 @@
+package tytoo.minegui.input;
+
+import imgui.ImGui;
+import imgui.glfw.ImGuiImplGlfw;
+import lombok.Getter;
+import lombok.Setter;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class InputEventQueue {
+    private static final InputEventQueue INSTANCE = new InputEventQueue();
+    private static final int CAPACITY = 256;
+    private static final byte KEY = 1;
+    private static final byte CHAR = 2;
+    private static final byte SCROLL = 3;
+
+    private final byte[] types = new byte[CAPACITY];
+    private final long[] windows = new long[CAPACITY];
+    private final int[] codes = new int[CAPACITY];
+    private final int[] scancodes = new int[CAPACITY];
+    private final int[] actions = new int[CAPACITY];
+    private final int[] modifiers = new int[CAPACITY];
+    private final double[] horizontal = new double[CAPACITY];
+    private final double[] vertical = new double[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    private final StringBuilder chars = new StringBuilder(32);
+    private int head;
+    private int size;
+    private long drainedEvents;
+    private long drainedTimestampSum;
+    private long oldestDrainedTimestamp;
+    private final AtomicLong submittedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    @Getter
+    @Setter
+    private volatile boolean enabled;
+
+    private InputEventQueue() {
+    }
+
+    public static InputEventQueue getInstance() {
+        return INSTANCE;
+    }
+
+    public void enqueueKey(ImGuiImplGlfw backend, long window, int key, int scancode, int action, int mods) {
+        if (action == GLFW.GLFW_REPEAT) {
+            coalescedEvents.incrementAndGet();
+            return;
+        }
+        int index = reserve(backend);
+        types[index] = KEY;
+        windows[index] = window;
+        codes[index] = key;
+        scancodes[index] = scancode;
+        actions[index] = action;
+        modifiers[index] = mods;
+    }
+
+    public void enqueueChar(ImGuiImplGlfw backend, long window, int codePoint) {
+        int index = reserve(backend);
+        types[index] = CHAR;
+        windows[index] = window;
+        codes[index] = codePoint;
+    }
+
+    public void enqueueScroll(ImGuiImplGlfw backend, long window, double x, double y) {
+        if (size > 0) {
+            int last = (head + size - 1) % CAPACITY;
+            if (types[last] == SCROLL && windows[last] == window) {
+                horizontal[last] += x;
+                vertical[last] += y;
+                coalescedEvents.incrementAndGet();
+                return;
+            }
+        }
+        int index = reserve(backend);
+        types[index] = SCROLL;
+        windows[index] = window;
+        horizontal[index] = x;
+        vertical[index] = y;
+    }
+
+    public void drain(ImGuiImplGlfw backend) {
+        while (size > 0) {
+            int index = head;
+            long timestamp = timestamps[index];
+            if (drainedEvents == 0L || timestamp < oldestDrainedTimestamp) {
+                oldestDrainedTimestamp = timestamp;
+            }
+            drainedEvents++;
+            drainedTimestampSum += timestamp;
+            head = (head + 1) % CAPACITY;
+            size--;
+            switch (types[index]) {
+                case KEY -> backend.keyCallback(windows[index], codes[index], scancodes[index], actions[index], modifiers[index]);
+                case SCROLL -> backend.scrollCallback(windows[index], horizontal[index], vertical[index]);
+                case CHAR -> appendChar(codes[index]);
+                default -> {
+                }
+            }
+            if (types[index] == CHAR && (size == 0 || types[head] != CHAR)) {
+                flushChars();
+            }
+        }
+    }
+
+    public void onFrameSubmitted() {
+        if (drainedEvents == 0L) {
+            return;
+        }
+        long now = System.nanoTime();
+        submittedEvents.addAndGet(drainedEvents);
+        totalLatencyNanos.addAndGet(drainedEvents * now - drainedTimestampSum);
+        maxLatencyNanos.accumulateAndGet(now - oldestDrainedTimestamp, Math::max);
+        drainedEvents = 0L;
+        drainedTimestampSum = 0L;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        drainedEvents = 0L;
+        drainedTimestampSum = 0L;
+        chars.setLength(0);
+    }
+
+    public InputQueueStats stats() {
+        return new InputQueueStats(submittedEvents.get(), coalescedEvents.get(), totalLatencyNanos.get(), maxLatencyNanos.get());
+    }
+
+    public void resetStats() {
+        submittedEvents.set(0L);
+        coalescedEvents.set(0L);
+        totalLatencyNanos.set(0L);
+        maxLatencyNanos.set(0L);
+    }
+
+    private int reserve(ImGuiImplGlfw backend) {
+        if (size == CAPACITY) {
+            drain(backend);
+        }
+        int index = (head + size) % CAPACITY;
+        size++;
+        timestamps[index] = System.nanoTime();
+        return index;
+    }
+
+    private void appendChar(int codePoint) {
+        if (codePoint <= 0 || codePoint > Character.MAX_VALUE || Character.isSurrogate((char) codePoint)) {
+            flushChars();
+            ImGui.getIO().addInputCharacter(codePoint);
+            return;
+        }
+        chars.append((char) codePoint);
+    }
+
+    private void flushChars() {
+        if (chars.isEmpty()) {
+            return;
+        }
+        ImGui.getIO().addInputCharactersUTF8(chars.toString());
+        chars.setLength(0);
+    }
+}
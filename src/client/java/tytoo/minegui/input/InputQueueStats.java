@@ -0,0 +1,15 @@
+package tytoo.minegui.input;
+
+public record InputQueueStats(long submittedEvents, long coalescedEvents, long totalLatencyNanos, long maxLatencyNanos) {
+    public static InputQueueStats empty() {
+        return new InputQueueStats(0L, 0L, 0L, 0L);
+    }
+
+    public double averageLatencyMillis() {
+        return submittedEvents > 0L ? totalLatencyNanos / (double) submittedEvents / 1_000_000.0d : 0.0d;
+    }
+
+    public double maxLatencyMillis() {
+        return maxLatencyNanos / 1_000_000.0d;
+    }
+}
@@ -1,6 +1,7 @@
 package tytoo.minegui.input;
 
 import imgui.ImGui;
+import imgui.ImGuiIO;
 import imgui.internal.ImGuiContext;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
@@ -16,6 +17,9 @@ public final class InputRouter {
 
     private final IntSet pressedMouse = new IntOpenHashSet();
     private final IntSet pressedKeys = new IntOpenHashSet();
+    private boolean wantCaptureMouse;
+    private boolean wantTextInput;
+    private boolean anyItemActive;
 
     private InputRouter() {
     }
@@ -24,6 +28,28 @@ public final class InputRouter {
         return INSTANCE;
     }
 
+    public void captureFrameState() {
+        ImGuiContext context = ImGui.getCurrentContext();
+        if (context == null || context.isNotValidPtr()) {
+            resetFrameState();
+            return;
+        }
+        ImGuiIO io = ImGui.getIO();
+        wantCaptureMouse = io.getWantCaptureMouse();
+        wantTextInput = io.getWantTextInput();
+        anyItemActive = ImGui.isAnyItemActive();
+    }
+
+    public void resetFrameState() {
+        wantCaptureMouse = false;
+        wantTextInput = false;
+        anyItemActive = false;
+    }
+
+    public boolean hasActiveInteraction() {
+        return wantTextInput || anyItemActive;
+    }
+
     public boolean onMouseButton(int button, int action) {
         if (!wantsMouseInput()) {
             if (action == GLFW.GLFW_RELEASE) {
@@ -125,21 +151,10 @@ public final class InputRouter {
     }
 
     private boolean imguiWantsMouse() {
-        ImGuiContext context = ImGui.getCurrentContext();
-        if (context == null || context.isNotValidPtr()) {
-            return false;
-        }
-        return ImGui.getIO().getWantCaptureMouse();
+        return wantCaptureMouse;
     }
 
     private boolean imguiWantsKeyboard() {
-        ImGuiContext context = ImGui.getCurrentContext();
-        if (context == null || context.isNotValidPtr()) {
-            return false;
-        }
-        if (ImGui.getIO().getWantTextInput()) {
-            return true;
-        }
-        return ImGui.isAnyItemActive();
+        return wantTextInput || anyItemActive;
     }
 }
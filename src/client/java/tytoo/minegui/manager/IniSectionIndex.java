@@ -0,0 +1,149 @@
+package tytoo.minegui.manager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+final class IniSectionIndex {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Integer> lastSectionById = new HashMap<>();
+    private String source = "";
+    private int count;
+    private String[] ids = new String[16];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int[] nextSameId = new int[16];
+    private boolean[] continuation = new boolean[16];
+
+    void index(String ini) {
+        source = ini != null ? ini : "";
+        count = 0;
+        lastSectionById.clear();
+        int length = source.length();
+        int position = 0;
+        int current = -1;
+        while (position < length) {
+            int lineEnd = source.indexOf('\n', position);
+            int next = lineEnd < 0 ? length : lineEnd + 1;
+            int contentEnd = lineEnd < 0 ? length : lineEnd;
+            if (contentEnd > position && source.charAt(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            if (source.charAt(position) == '[') {
+                if (current >= 0) {
+                    ends[current] = position;
+                }
+                current = -1;
+                String id = extractViewId(position, contentEnd);
+                if (id != null) {
+                    current = add(id, position);
+                }
+            }
+            position = next;
+        }
+        if (current >= 0) {
+            ends[current] = length;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(ids, 0, count, null);
+        source = "";
+        count = 0;
+        lastSectionById.clear();
+    }
+
+    int size() {
+        return count;
+    }
+
+    String id(int section) {
+        return ids[section];
+    }
+
+    boolean isFirstForId(int section) {
+        return !continuation[section];
+    }
+
+    long hash(int firstSection) {
+        long hash = FNV_OFFSET;
+        for (int section = firstSection; section >= 0; section = nextSameId[section]) {
+            for (int index = starts[section]; index < ends[section]; index++) {
+                hash = (hash ^ source.charAt(index)) * FNV_PRIME;
+            }
+            if (!endsWithNewline(section)) {
+                hash = (hash ^ '\n') * FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    String text(int firstSection) {
+        int length = 0;
+        for (int section = firstSection; section >= 0; section = nextSameId[section]) {
+            length += ends[section] - starts[section] + 1;
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int section = firstSection; section >= 0; section = nextSameId[section]) {
+            builder.append(source, starts[section], ends[section]);
+            if (!endsWithNewline(section)) {
+                builder.append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private boolean endsWithNewline(int section) {
+        return ends[section] > starts[section] && source.charAt(ends[section] - 1) == '\n';
+    }
+
+    private int add(String id, int start) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            nextSameId = Arrays.copyOf(nextSameId, capacity);
+            continuation = Arrays.copyOf(continuation, capacity);
+        }
+        int section = count++;
+        ids[section] = id;
+        starts[section] = start;
+        ends[section] = start;
+        nextSameId[section] = -1;
+        Integer previous = lastSectionById.put(id, section);
+        continuation[section] = previous != null;
+        if (previous != null) {
+            nextSameId[previous] = section;
+        }
+        return section;
+    }
+
+    private String extractViewId(int lineStart, int lineEnd) {
+        int typeEnd = source.indexOf(']', lineStart + 1);
+        if (typeEnd <= lineStart + 1 || typeEnd >= lineEnd) {
+            return null;
+        }
+        int nameStart = typeEnd + 2;
+        int nameEnd = lineEnd - 1;
+        if (nameStart >= nameEnd || source.charAt(typeEnd + 1) != '[' || source.charAt(nameEnd) != ']') {
+            return null;
+        }
+        int markerIndex = -1;
+        for (int index = nameStart; index < nameEnd; index++) {
+            char value = source.charAt(index);
+            if (value == ']') {
+                return null;
+            }
+            if (value == '#' && index + 1 < nameEnd && source.charAt(index + 1) == '#') {
+                markerIndex = index;
+            }
+        }
+        if (markerIndex < 0 || markerIndex + 2 >= nameEnd) {
+            return null;
+        }
+        return source.substring(markerIndex + 2, nameEnd);
+    }
+}
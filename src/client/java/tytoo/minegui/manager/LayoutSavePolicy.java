@@ -0,0 +1,23 @@
+package tytoo.minegui.manager;
+
+public record LayoutSavePolicy(long debounceMillis) {
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 500L;
+
+    public LayoutSavePolicy {
+        if (debounceMillis < 0L) {
+            throw new IllegalArgumentException("debounceMillis cannot be negative");
+        }
+    }
+
+    public static LayoutSavePolicy defaults() {
+        return new LayoutSavePolicy(DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public static LayoutSavePolicy immediate() {
+        return new LayoutSavePolicy(0L);
+    }
+
+    public static LayoutSavePolicy debounced(long debounceMillis) {
+        return new LayoutSavePolicy(debounceMillis);
+    }
+}
@@ -0,0 +1,11 @@
+package tytoo.minegui.manager;
+
+public record LayoutSaveStats(long performedSaves, long suppressedSaves) {
+    public static LayoutSaveStats empty() {
+        return new LayoutSaveStats(0L, 0L);
+    }
+
+    public long totalRequests() {
+        return performedSaves + suppressedSaves;
+    }
+}
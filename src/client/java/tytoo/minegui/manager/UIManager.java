@@ -12,18 +12,28 @@ import tytoo.minegui.view.View;
 import tytoo.minegui.view.cursor.CursorPolicies;
 import tytoo.minegui.view.cursor.CursorPolicy;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class UIManager {
     private static final Map<String, UIManager> INSTANCES = new ConcurrentHashMap<>();
+    private static final View[] NO_VIEWS = new View[0];
+    private static final AtomicInteger VISIBLE_VIEWS = new AtomicInteger();
+    private static final AtomicLong REDRAW_REVISION = new AtomicLong();
 
     private final String namespace;
     private final ViewSaveManager viewSaveManager;
     private final StyleManager styleManager;
     private final List<View> views = new CopyOnWriteArrayList<>();
+    private final AtomicInteger viewsVersion = new AtomicInteger();
+    private final AtomicInteger visibleCount = new AtomicInteger();
+    private View[] visibleViews = NO_VIEWS;
+    private int visibleViewsVersion = -1;
     @Getter
     private volatile CursorPolicy defaultCursorPolicy;
 
@@ -42,6 +52,18 @@ public final class UIManager {
         return get(MineGuiCore.getConfigNamespace());
     }
 
+    public static boolean anyVisibleViews() {
+        return VISIBLE_VIEWS.get() > 0;
+    }
+
+    public static void requestRedraw() {
+        REDRAW_REVISION.incrementAndGet();
+    }
+
+    public static long redrawRevision() {
+        return REDRAW_REVISION.get();
+    }
+
     public String namespace() {
         return namespace;
     }
@@ -55,6 +77,10 @@ public final class UIManager {
             viewSaveManager.register(view);
             view.attach(namespace, viewSaveManager);
             view.applyDefaultCursorPolicy(defaultCursorPolicy);
+            if (view.isVisible()) {
+                adjustVisibleCount(1);
+            }
+            markViewsChanged();
         }
     }
 
@@ -86,6 +112,28 @@ public final class UIManager {
         views.remove(view);
         viewSaveManager.unregister(view);
         view.detach();
+        markViewsChanged();
+    }
+
+    public void onViewVisibilityChanged(View view) {
+        if (view == null || !views.contains(view)) {
+            return;
+        }
+        adjustVisibleCount(view.isVisible() ? 1 : -1);
+        markViewsChanged();
+    }
+
+    private void markViewsChanged() {
+        viewsVersion.incrementAndGet();
+        REDRAW_REVISION.incrementAndGet();
+    }
+
+    private void adjustVisibleCount(int delta) {
+        int previous = visibleCount.getAndUpdate(count -> Math.max(0, count + delta));
+        int applied = Math.max(0, previous + delta) - previous;
+        if (applied != 0) {
+            VISIBLE_VIEWS.addAndGet(applied);
+        }
     }
 
     public void setDefaultCursorPolicy(CursorPolicy policy) {
@@ -102,7 +150,7 @@ public final class UIManager {
     }
 
     public boolean hasVisibleViews() {
-        return views.stream().anyMatch(View::isVisible);
+        return visibleCount.get() > 0;
     }
 
     public boolean hasViews() {
@@ -110,15 +158,13 @@ public final class UIManager {
     }
 
     public void render() {
-        if (views.isEmpty()) {
+        View[] visible = visibleViews();
+        if (visible.length == 0) {
             return;
         }
         StyleManager.pushActive(styleManager);
         try {
-            for (View view : views) {
-                if (view == null) {
-                    continue;
-                }
+            for (View view : visible) {
                 if (!view.isVisible()) {
                     continue;
                 }
@@ -141,6 +187,22 @@ public final class UIManager {
         }
     }
 
+    private View[] visibleViews() {
+        int version = viewsVersion.get();
+        if (version == visibleViewsVersion) {
+            return visibleViews;
+        }
+        List<View> visible = new ArrayList<>();
+        for (View view : views) {
+            if (view != null && view.isVisible()) {
+                visible.add(view);
+            }
+        }
+        visibleViews = visible.isEmpty() ? NO_VIEWS : visible.toArray(NO_VIEWS);
+        visibleViewsVersion = version;
+        return visibleViews;
+    }
+
     private void applyViewBaseStyle(View view, StyleDescriptor fallbackDescriptor) {
         ResourceId styleKey = view.getStyleKey();
         styleManager.setGlobalStyleKeyTransient(styleKey);
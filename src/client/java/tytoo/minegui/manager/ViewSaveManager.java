@@ -1,44 +1,60 @@
 package tytoo.minegui.manager;
 
 import imgui.ImGui;
-import imgui.ImGuiIO;
+import lombok.Getter;
 import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.config.ConfigFeature;
 import tytoo.minegui.config.GlobalConfigManager;
 import tytoo.minegui.persistence.FileViewPersistenceAdapter;
 import tytoo.minegui.persistence.ViewPersistenceAdapter;
 import tytoo.minegui.persistence.ViewPersistenceRequest;
+import tytoo.minegui.persistence.ViewPreload;
 import tytoo.minegui.persistence.ViewStyleSnapshot;
 import tytoo.minegui.runtime.MineGuiNamespaceContext;
 import tytoo.minegui.runtime.MineGuiNamespaces;
 import tytoo.minegui.runtime.config.NamespaceConfigService;
+import tytoo.minegui.style.StyleBinarySerializer;
+import tytoo.minegui.style.StyleDescriptor;
 import tytoo.minegui.style.StyleJsonSerializer;
 import tytoo.minegui.style.StyleManager;
 import tytoo.minegui.util.ResourceId;
 import tytoo.minegui.view.View;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ViewSaveManager {
     private static final Map<String, ViewSaveManager> INSTANCES = new ConcurrentHashMap<>();
     private static final Map<String, ViewPersistenceAdapter> ADAPTERS = new ConcurrentHashMap<>();
     private static final ViewPersistenceAdapter DEFAULT_ADAPTER = new FileViewPersistenceAdapter();
-    private static final Pattern WINDOW_HEADER_PATTERN = Pattern.compile("^\\[[^]]+]\\[(?<name>[^]]+)]$");
 
     private final String namespace;
     private final Map<View, ViewEntry> entries = new ConcurrentHashMap<>();
     private final StyleManager styleManager;
+    private final IniSectionIndex sectionIndex = new IniSectionIndex();
+    private final Set<String> consumedPreloadedStyles = new HashSet<>();
+    private volatile Map<String, ScopedView> scopedViews;
+    private final AtomicLong performedLayoutSaves = new AtomicLong();
+    private final AtomicLong suppressedLayoutSaves = new AtomicLong();
     private volatile ViewPersistenceAdapter adapter;
     private volatile boolean forceSave;
+    @Getter
+    private volatile LayoutSavePolicy layoutSavePolicy = LayoutSavePolicy.defaults();
+    private boolean layoutSavePending;
+    private long lastLayoutSaveNanos;
+    private volatile CompletableFuture<Optional<ViewPreload>> pendingPreload;
+    private volatile ViewPersistenceAdapter preloadAdapter;
+    private ViewPreload preloaded;
+    private boolean preloadedLayoutsApplied;
 
     private ViewSaveManager(String namespace) {
         this.namespace = namespace;
@@ -94,6 +110,7 @@ public final class ViewSaveManager {
             return;
         }
         entries.computeIfAbsent(view, unused -> new ViewEntry());
+        invalidateScopedViews();
     }
 
     public void unregister(View view) {
@@ -101,6 +118,7 @@ public final class ViewSaveManager {
             return;
         }
         entries.remove(view);
+        invalidateScopedViews();
     }
 
     public void prepareView(View view) {
@@ -108,7 +126,9 @@ public final class ViewSaveManager {
             return;
         }
         if (!view.isPersistent()) {
-            entries.remove(view);
+            if (entries.remove(view) != null) {
+                invalidateScopedViews();
+            }
             return;
         }
         ViewEntry entry = entries.computeIfAbsent(view, unused -> new ViewEntry());
@@ -124,10 +144,15 @@ public final class ViewSaveManager {
         ViewPersistenceRequest request = new ViewPersistenceRequest(namespace, persistenceViewId(currentId), scopedId);
         if (!Objects.equals(entry.loadedId, currentId) || !Objects.equals(entry.loadedScopedId, scopedId)) {
             entry.loaded = false;
-            entry.persistedStyleSnapshotJson = loadStyleSnapshots ? adapter.loadStyleSnapshot(request).orElse(null) : null;
+            loadPersistedStyle(entry, request, loadStyleSnapshots);
             entry.styleSnapshotJson = null;
+            entry.styleSnapshotDescriptor = null;
+            entry.styleSnapshotBinary = null;
+            entry.styleCaptured = false;
             entry.descriptorDirty = false;
             entry.loadedScopedId = null;
+            entry.layoutHashValid = false;
+            invalidateScopedViews();
         }
         entry.request = request;
         if (entry.loaded) {
@@ -135,13 +160,106 @@ public final class ViewSaveManager {
         }
         entry.loadedId = currentId;
         entry.loadedScopedId = scopedId;
-        if (loadLayouts) {
+        if (loadLayouts && !applyPreloadedLayouts()) {
             adapter.loadLayout(request).ifPresent(ImGui::loadIniSettingsFromMemory);
         }
         entry.loaded = true;
         restoreViewStyle(view, entry);
     }
 
+    public void preload() {
+        ViewPersistenceAdapter source = adapter;
+        CompletableFuture<Optional<ViewPreload>> future = new CompletableFuture<>();
+        preloadAdapter = source;
+        pendingPreload = future;
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(source.loadAll(namespace));
+            } catch (RuntimeException e) {
+                MineGuiCore.LOGGER.error("Failed to preload view saves for {}", namespace, e);
+                future.complete(Optional.empty());
+            }
+        }, "MineGui View Preload (" + namespace + ")");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean applyPreloadedLayouts() {
+        ViewPreload views = awaitPreload();
+        if (views == null) {
+            return false;
+        }
+        if (preloadedLayoutsApplied) {
+            return true;
+        }
+        preloadedLayoutsApplied = true;
+        NamespaceConfigService configService = configService();
+        boolean loadLayouts = configService != null
+                ? configService.shouldLoad(ConfigFeature.VIEW_LAYOUTS)
+                : GlobalConfigManager.shouldLoadFeature(namespace, ConfigFeature.VIEW_LAYOUTS);
+        if (loadLayouts && !views.layouts().isEmpty()) {
+            StringBuilder ini = new StringBuilder();
+            for (String layout : views.layouts()) {
+                ini.append(layout);
+                if (!layout.endsWith("\n")) {
+                    ini.append('\n');
+                }
+            }
+            ImGui.loadIniSettingsFromMemory(ini.toString());
+        }
+        return true;
+    }
+
+    private ViewPreload awaitPreload() {
+        CompletableFuture<Optional<ViewPreload>> future = pendingPreload;
+        if (future == null) {
+            return preloaded;
+        }
+        pendingPreload = null;
+        Optional<ViewPreload> result = future.join();
+        if (preloadAdapter != adapter) {
+            return null;
+        }
+        preloaded = result.orElse(null);
+        preloadedLayoutsApplied = false;
+        consumedPreloadedStyles.clear();
+        return preloaded;
+    }
+
+    private void loadPersistedStyle(ViewEntry entry, ViewPersistenceRequest request, boolean enabled) {
+        entry.persistedStyleSnapshotJson = null;
+        entry.persistedStyleSnapshotBinary = null;
+        if (!enabled) {
+            return;
+        }
+        ViewPreload views = awaitPreload();
+        if (views != null && consumedPreloadedStyles.add(request.viewId())) {
+            entry.persistedStyleSnapshotBinary = views.binaryStyleSnapshots().get(request.viewId());
+            if (entry.persistedStyleSnapshotBinary == null) {
+                entry.persistedStyleSnapshotJson = views.styleSnapshots().get(request.viewId());
+            }
+            return;
+        }
+        entry.persistedStyleSnapshotBinary = adapter.loadBinaryStyleSnapshot(request).orElse(null);
+        if (entry.persistedStyleSnapshotBinary == null) {
+            entry.persistedStyleSnapshotJson = adapter.loadStyleSnapshot(request).orElse(null);
+        }
+    }
+
+    private boolean matchesPersistedStyle(View view, ViewEntry entry) {
+        if (entry.persistedStyleSnapshotBinary != null) {
+            return Arrays.equals(styleSnapshotBinary(view, entry), entry.persistedStyleSnapshotBinary);
+        }
+        return Objects.equals(entry.styleSnapshotJson, entry.persistedStyleSnapshotJson);
+    }
+
+    private byte[] styleSnapshotBinary(View view, ViewEntry entry) {
+        if (entry.styleSnapshotBinary == null && entry.styleSnapshotDescriptor != null) {
+            entry.styleSnapshotBinary = StyleBinarySerializer.toBinary(namespace, view.getId(), view.getStyleKey(), entry.styleSnapshotDescriptor);
+        }
+        return entry.styleSnapshotBinary;
+    }
+
     public void requestSave() {
         forceSave = true;
     }
@@ -150,6 +268,15 @@ public final class ViewSaveManager {
         persistViewStyles();
         persistStyleDescriptors();
         forceSave = false;
+        adapter.flush();
+    }
+
+    public void close() {
+        adapter.close();
+    }
+
+    public boolean storesBinaryStyles() {
+        return adapter.acceptsBinaryStyleSnapshots();
     }
 
     public int exportStyles(boolean forceRewrite) {
@@ -168,24 +295,58 @@ public final class ViewSaveManager {
         return persistStyleDescriptors();
     }
 
+    public void setLayoutSavePolicy(LayoutSavePolicy policy) {
+        this.layoutSavePolicy = policy != null ? policy : LayoutSavePolicy.defaults();
+    }
+
+    public LayoutSaveStats layoutSaveStats() {
+        return new LayoutSaveStats(performedLayoutSaves.get(), suppressedLayoutSaves.get());
+    }
+
+    public void resetLayoutSaveStats() {
+        performedLayoutSaves.set(0L);
+        suppressedLayoutSaves.set(0L);
+    }
+
     public void onFrameRendered() {
+        onFrameRendered(ImGui.getIO().getWantSaveIniSettings());
+    }
+
+    public void onFrameRendered(boolean iniDirty) {
         if (entries.isEmpty()) {
             persistViewStyles();
             persistStyleDescriptors();
             forceSave = false;
+            layoutSavePending = false;
             return;
         }
-        ImGuiIO io = ImGui.getIO();
-        boolean shouldPersistIni = forceSave || io.getWantSaveIniSettings();
-        if (shouldPersistIni) {
+        boolean forced = forceSave;
+        if (iniDirty || forced) {
+            if (layoutSavePending) {
+                suppressedLayoutSaves.incrementAndGet();
+            }
+            layoutSavePending = true;
+        }
+        if (layoutSavePending && (forced || isLayoutSaveDue())) {
             String iniContent = ImGui.saveIniSettingsToMemory();
             persistEntries(iniContent);
             forceSave = false;
+            layoutSavePending = false;
+            lastLayoutSaveNanos = System.nanoTime();
+            performedLayoutSaves.incrementAndGet();
         }
         persistViewStyles();
         persistStyleDescriptors();
     }
 
+    private boolean isLayoutSaveDue() {
+        if (!ImGui.isAnyMouseDown()) {
+            return true;
+        }
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(layoutSavePolicy.debounceMillis());
+        return System.nanoTime() - lastLayoutSaveNanos >= debounceNanos;
+    }
+
     private void persistEntries(String iniContent) {
         if (iniContent == null || iniContent.isEmpty()) {
             return;
@@ -197,51 +358,53 @@ public final class ViewSaveManager {
         if (!shouldSaveLayouts) {
             return;
         }
-        Map<String, Map.Entry<View, ViewEntry>> activeEntries = entries.entrySet().stream()
-                .filter(entry -> entry.getKey().isPersistent())
-                .collect(Collectors.toMap(entry -> scopedId(entry.getKey()), entry -> entry, (first, second) -> first));
+        Map<String, ScopedView> activeEntries = scopedViews();
         if (activeEntries.isEmpty()) {
             return;
         }
-        Map<String, StringBuilder> bufferedSections = new HashMap<>();
-        try (BufferedReader reader = new BufferedReader(new StringReader(iniContent))) {
-            String line;
-            StringBuilder sectionBuffer = null;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("[")) {
-                    String identifiedId = extractViewId(line);
-                    if (identifiedId != null && activeEntries.containsKey(identifiedId)) {
-                        sectionBuffer = bufferedSections.computeIfAbsent(identifiedId, key -> new StringBuilder());
-                        if (!sectionBuffer.isEmpty() && sectionBuffer.charAt(sectionBuffer.length() - 1) != '\n') {
-                            sectionBuffer.append('\n');
-                        }
-                        sectionBuffer.append(line).append('\n');
-                    } else {
-                        sectionBuffer = null;
-                    }
+        sectionIndex.index(iniContent);
+        try {
+            for (int section = 0; section < sectionIndex.size(); section++) {
+                if (!sectionIndex.isFirstForId(section)) {
                     continue;
                 }
-                if (sectionBuffer != null) {
-                    sectionBuffer.append(line).append('\n');
+                ScopedView active = activeEntries.get(sectionIndex.id(section));
+                if (active == null) {
+                    continue;
+                }
+                ViewEntry viewEntry = active.entry();
+                long hash = sectionIndex.hash(section);
+                if (viewEntry.layoutHashValid && viewEntry.layoutHash == hash) {
+                    continue;
                 }
+                ViewPersistenceRequest request = ensureRequest(active.view(), viewEntry);
+                adapter.saveLayout(request, sectionIndex.text(section));
+                viewEntry.layoutHash = hash;
+                viewEntry.layoutHashValid = true;
             }
-        } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to parse ImGui ini data for {}", namespace, e);
-            return;
+        } finally {
+            sectionIndex.clear();
         }
-        for (Map.Entry<String, StringBuilder> entry : bufferedSections.entrySet()) {
-            if (entry.getValue().isEmpty()) {
-                continue;
-            }
-            Map.Entry<View, ViewEntry> active = activeEntries.get(entry.getKey());
-            if (active == null) {
-                continue;
+    }
+
+    private Map<String, ScopedView> scopedViews() {
+        Map<String, ScopedView> cached = scopedViews;
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, ScopedView> rebuilt = new HashMap<>();
+        for (Map.Entry<View, ViewEntry> entry : entries.entrySet()) {
+            View view = entry.getKey();
+            if (view.isPersistent()) {
+                rebuilt.putIfAbsent(scopedId(view), new ScopedView(view, entry.getValue()));
             }
-            View view = active.getKey();
-            ViewEntry viewEntry = active.getValue();
-            ViewPersistenceRequest request = ensureRequest(view, viewEntry);
-            adapter.saveLayout(request, entry.getValue().toString());
         }
+        scopedViews = rebuilt;
+        return rebuilt;
+    }
+
+    private void invalidateScopedViews() {
+        scopedViews = null;
     }
 
     public void captureViewStyle(View view) {
@@ -257,16 +420,30 @@ public final class ViewSaveManager {
             entry.pendingStyleKey = currentKey;
             entry.styleDirty = true;
         }
+        long signature = styleManager.effectiveStyleSignature() * 31L + Objects.hashCode(currentKey);
+        if (entry.styleCaptured
+                && entry.styleSignature == signature
+                && Objects.equals(entry.capturedStyleKey, currentKey)
+                && styleManager.effectiveStyleMatches(entry.styleSnapshotDescriptor)) {
+            return;
+        }
+        entry.styleCaptured = true;
+        entry.styleSignature = signature;
+        entry.capturedStyleKey = currentKey;
         styleManager.getEffectiveDescriptor().ifPresentOrElse(descriptor -> {
             String snapshot = StyleJsonSerializer.toJson(namespace, view.getId(), view.getStyleKey(), descriptor);
             if (!Objects.equals(entry.styleSnapshotJson, snapshot)) {
                 entry.styleSnapshotJson = snapshot;
-                entry.descriptorDirty = !Objects.equals(snapshot, entry.persistedStyleSnapshotJson);
+                entry.styleSnapshotDescriptor = descriptor;
+                entry.styleSnapshotBinary = null;
+                entry.descriptorDirty = !matchesPersistedStyle(view, entry);
             }
         }, () -> {
             if (entry.styleSnapshotJson != null) {
                 entry.styleSnapshotJson = null;
-                entry.descriptorDirty = entry.persistedStyleSnapshotJson != null;
+                entry.styleSnapshotDescriptor = null;
+                entry.styleSnapshotBinary = null;
+                entry.descriptorDirty = entry.persistedStyleSnapshotJson != null || entry.persistedStyleSnapshotBinary != null;
             }
         });
     }
@@ -364,6 +541,8 @@ public final class ViewSaveManager {
             ViewStyleSnapshot snapshot;
             if (state.styleSnapshotJson == null || state.styleSnapshotJson.isBlank()) {
                 snapshot = ViewStyleSnapshot.deleted(request);
+            } else if (adapter.acceptsBinaryStyleSnapshots() && state.styleSnapshotDescriptor != null) {
+                snapshot = ViewStyleSnapshot.present(request, state.styleSnapshotJson, styleSnapshotBinary(view, state));
             } else {
                 snapshot = ViewStyleSnapshot.present(request, state.styleSnapshotJson);
             }
@@ -371,10 +550,14 @@ public final class ViewSaveManager {
             if (!persisted) {
                 continue;
             }
-            if (snapshot.deleted()) {
-                state.persistedStyleSnapshotJson = null;
-            } else {
-                state.persistedStyleSnapshotJson = state.styleSnapshotJson;
+            state.persistedStyleSnapshotJson = null;
+            state.persistedStyleSnapshotBinary = null;
+            if (!snapshot.deleted()) {
+                if (snapshot.hasBinary() && adapter.acceptsBinaryStyleSnapshots()) {
+                    state.persistedStyleSnapshotBinary = snapshot.snapshotBinary();
+                } else {
+                    state.persistedStyleSnapshotJson = state.styleSnapshotJson;
+                }
                 exported++;
             }
             state.descriptorDirty = false;
@@ -398,19 +581,6 @@ public final class ViewSaveManager {
         return viewNamespace + "/" + viewId;
     }
 
-    private String extractViewId(String headerLine) {
-        Matcher matcher = WINDOW_HEADER_PATTERN.matcher(headerLine);
-        if (!matcher.matches()) {
-            return null;
-        }
-        String name = matcher.group("name");
-        int markerIndex = name.lastIndexOf("##");
-        if (markerIndex < 0 || markerIndex + 2 >= name.length()) {
-            return null;
-        }
-        return name.substring(markerIndex + 2);
-    }
-
     private ViewPersistenceRequest ensureRequest(View view, ViewEntry entry) {
         String scopedId = scopedId(view);
         String viewId = persistenceViewId(view.getId());
@@ -432,6 +602,12 @@ public final class ViewSaveManager {
 
     private void updateAdapter(ViewPersistenceAdapter adapter) {
         this.adapter = adapter != null ? adapter : DEFAULT_ADAPTER;
+        pendingPreload = null;
+        preloadAdapter = null;
+        preloaded = null;
+        for (ViewEntry entry : entries.values()) {
+            entry.layoutHashValid = false;
+        }
     }
 
     private NamespaceConfigService configService() {
@@ -447,7 +623,18 @@ public final class ViewSaveManager {
         private String pendingStyleKey;
         private boolean styleDirty;
         private String styleSnapshotJson;
+        private StyleDescriptor styleSnapshotDescriptor;
+        private boolean styleCaptured;
+        private long styleSignature;
+        private String capturedStyleKey;
+        private byte[] styleSnapshotBinary;
         private String persistedStyleSnapshotJson;
+        private byte[] persistedStyleSnapshotBinary;
         private boolean descriptorDirty;
+        private boolean layoutHashValid;
+        private long layoutHash;
+    }
+
+    private record ScopedView(View view, ViewEntry entry) {
     }
 }
@@ -8,12 +8,14 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import tytoo.minegui.imgui.ImGuiLoader;
 import tytoo.minegui.input.InputRouter;
 import tytoo.minegui.runtime.cursor.CursorPolicyRegistry;
+import tytoo.minegui.util.InputHelper;
 
 @Mixin(Keyboard.class)
 public abstract class MGKeyboardMixin {
 
     @Inject(method = "onKey", at = @At("HEAD"), cancellable = true)
     public void keyPress(long window, int key, int scancode, int action, int modifiers, CallbackInfo ci) {
+        InputHelper.onKeyEvent(key, action);
         if (CursorPolicyRegistry.wantsImGuiInput()) {
             ImGuiLoader.onKeyEvent(window, key, scancode, action, modifiers);
         }
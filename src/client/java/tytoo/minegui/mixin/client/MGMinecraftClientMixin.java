@@ -7,12 +7,21 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import tytoo.minegui.runtime.MineGuiNamespaces;
 import tytoo.minegui.runtime.cursor.CursorPolicyRegistry;
+import tytoo.minegui.style.GlyphUsage;
+import tytoo.minegui.util.InputHelper;
 
 @Mixin(MinecraftClient.class)
 public abstract class MGMinecraftClientMixin {
     @Inject(method = "stop()V", at = @At("HEAD"))
     private void onStop(CallbackInfo ci) {
+        MineGuiNamespaces.flushConfigs();
         MineGuiNamespaces.saveAllConfigs();
+        GlyphUsage.getInstance().save();
+    }
+
+    @Inject(method = "onWindowFocusChanged", at = @At("TAIL"))
+    private void onFocusChanged(boolean focused, CallbackInfo ci) {
+        InputHelper.onFocusChanged(focused);
     }
 
     @Inject(method = "setScreen", at = @At("TAIL"))
@@ -23,6 +23,9 @@ public abstract class MGMouseMixin {
 
     @Inject(at = @At("HEAD"), method = "onMouseButton", cancellable = true)
     private void onMouseButton(long window, int button, int action, int mods, CallbackInfo ci) {
+        if (CursorPolicyRegistry.wantsImGuiInput()) {
+            ImGuiLoader.onMouseActivity(window);
+        }
         if (InputRouter.getInstance().onMouseButton(button, action)) {
             ci.cancel();
         }
@@ -30,6 +33,9 @@ public abstract class MGMouseMixin {
 
     @Inject(method = "onCursorPos", at = @At("HEAD"), cancellable = true)
     private void minegui$onCursorPos(long window, double x, double y, CallbackInfo ci) {
+        if (CursorPolicyRegistry.wantsImGuiInput()) {
+            ImGuiLoader.onMouseActivity(window);
+        }
         if (InputRouter.getInstance().onMouseMove()) {
             ci.cancel();
         }
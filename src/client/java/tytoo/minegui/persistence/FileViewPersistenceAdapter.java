@@ -1,34 +1,61 @@
 package tytoo.minegui.persistence;
 
+import com.google.gson.stream.JsonReader;
 import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.config.GlobalConfigManager;
+import tytoo.minegui.style.StyleBinarySerializer;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter {
     private static final String LAYOUTS_FOLDER = "layouts";
     private static final String STYLES_FOLDER = "styles";
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Set<Path> knownAbsent = ConcurrentHashMap.newKeySet();
+    private final StyleSnapshotFormat styleFormat;
+    private final ViewWriteMode writeMode;
+
+    public FileViewPersistenceAdapter() {
+        this(StyleSnapshotFormat.JSON, ViewWriteMode.WRITE_BEHIND);
+    }
+
+    public FileViewPersistenceAdapter(StyleSnapshotFormat styleFormat) {
+        this(styleFormat, ViewWriteMode.WRITE_BEHIND);
+    }
+
+    public FileViewPersistenceAdapter(StyleSnapshotFormat styleFormat, ViewWriteMode writeMode) {
+        this.styleFormat = styleFormat != null ? styleFormat : StyleSnapshotFormat.JSON;
+        this.writeMode = writeMode != null ? writeMode : ViewWriteMode.WRITE_BEHIND;
+    }
 
     @Override
     public Optional<String> loadLayout(ViewPersistenceRequest request) {
         Path hashed = ViewSavePaths.hashedLayout(request.namespace(), request.viewId());
-        ensureParentDirectory(request, hashed);
         Path legacy = ViewSavePaths.legacyLayout(request.namespace(), request.viewId());
-        Path source = Files.exists(hashed) ? hashed : legacy;
-        if (!Files.exists(source)) {
-            return Optional.empty();
-        }
+        Path source = exists(hashed) ? hashed : legacy;
         try {
-            return Optional.of(Files.readString(source, StandardCharsets.UTF_8));
+            return readBytes(source).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
         } catch (IOException e) {
             MineGuiCore.LOGGER.error("Failed to read view ini for {} in {}", request.viewId(), request.namespace(), e);
             return Optional.empty();
@@ -41,11 +68,7 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
             return;
         }
         Path target = ViewSavePaths.hashedLayout(request.namespace(), request.viewId());
-        ensureParentDirectory(request, target);
-        try {
-            Files.writeString(target, iniContent, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-        } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to write view ini for {} in {}", request.viewId(), request.namespace(), e);
+        if (!write(request, target, iniContent.getBytes(StandardCharsets.UTF_8))) {
             return;
         }
         cleanupLegacyLayout(request, target);
@@ -53,16 +76,33 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
 
     @Override
     public Optional<String> loadStyleSnapshot(ViewPersistenceRequest request) {
+        Optional<String> decoded = loadBinaryStyleSnapshot(request)
+                .flatMap(StyleBinarySerializer::fromBinary)
+                .map(StyleBinarySerializer.Snapshot::toJson);
+        if (decoded.isPresent()) {
+            return decoded;
+        }
         Path hashed = ViewSavePaths.hashedStyle(request.namespace(), request.viewId());
         Path legacy = ViewSavePaths.legacyStyle(request.namespace(), request.viewId());
-        Path source = Files.exists(hashed) ? hashed : legacy;
-        if (!Files.exists(source)) {
+        Path source = exists(hashed) ? hashed : legacy;
+        try {
+            return readBytes(source).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to read style json for {} in {}", request.viewId(), request.namespace(), e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> loadBinaryStyleSnapshot(ViewPersistenceRequest request) {
+        if (styleFormat != StyleSnapshotFormat.BINARY) {
             return Optional.empty();
         }
+        Path binary = ViewSavePaths.hashedBinaryStyle(request.namespace(), request.viewId());
         try {
-            return Optional.of(Files.readString(source, StandardCharsets.UTF_8));
+            return readBytes(binary);
         } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to read style json for {} in {}", request.viewId(), request.namespace(), e);
+            MineGuiCore.LOGGER.error("Failed to read binary style for {} in {}", request.viewId(), request.namespace(), e);
             return Optional.empty();
         }
     }
@@ -71,54 +111,205 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
     public boolean storeStyleSnapshot(ViewStyleSnapshot snapshot) {
         ViewPersistenceRequest request = snapshot.request();
         Path target = ViewSavePaths.hashedStyle(request.namespace(), request.viewId());
-        ensureParentDirectory(request, target);
+        Path binary = ViewSavePaths.hashedBinaryStyle(request.namespace(), request.viewId());
         if (snapshot.deleted()) {
-            boolean deleted = deleteIfExists(request.namespace(), target);
+            boolean deleted = deleteIfPresent(request.namespace(), target);
+            deleted |= deleteIfPresent(request.namespace(), binary);
             cleanupLegacyStyle(request, target);
             return deleted;
         }
-        try {
-            Files.writeString(target, snapshot.snapshotJson(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (styleFormat == StyleSnapshotFormat.BINARY && snapshot.hasBinary()) {
+            if (!write(request, binary, snapshot.snapshotBinary())) {
+                return false;
+            }
+            deleteIfPresent(request.namespace(), target);
             cleanupLegacyStyle(request, target);
             return true;
-        } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to write style json for {} in {}", request.viewId(), request.namespace(), e);
+        }
+        if (!write(request, target, snapshot.snapshotJson().getBytes(StandardCharsets.UTF_8))) {
             return false;
         }
+        deleteIfPresent(request.namespace(), binary);
+        cleanupLegacyStyle(request, target);
+        return true;
     }
 
-    private void cleanupLegacyLayout(ViewPersistenceRequest request, Path currentPath) {
-        Path legacy = ViewSavePaths.legacyLayout(request.namespace(), request.viewId());
-        if (!legacy.equals(currentPath)) {
-            deleteIfExists(request.namespace(), legacy);
-        }
+    @Override
+    public boolean acceptsBinaryStyleSnapshots() {
+        return styleFormat == StyleSnapshotFormat.BINARY;
     }
 
-    private void cleanupLegacyStyle(ViewPersistenceRequest request, Path currentPath) {
-        Path legacy = ViewSavePaths.legacyStyle(request.namespace(), request.viewId());
-        if (!legacy.equals(currentPath)) {
-            deleteIfExists(request.namespace(), legacy);
+    @Override
+    public void flush() {
+        if (writeMode == ViewWriteMode.WRITE_BEHIND) {
+            ViewSaveWriter.getInstance().flush(FLUSH_TIMEOUT);
         }
     }
 
-    private void ensureParentDirectory(ViewPersistenceRequest request, Path target) {
-        Path parent = target.getParent();
-        if (parent == null) {
-            return;
+    @Override
+    public Optional<ViewPreload> loadAll(String namespace) {
+        if (writeMode == ViewWriteMode.WRITE_BEHIND && !ViewSaveWriter.getInstance().flush(FLUSH_TIMEOUT)) {
+            return Optional.empty();
         }
+        knownAbsent.clear();
+        Path root = GlobalConfigManager.getViewSavesDirectory(namespace);
         try {
-            Files.createDirectories(parent);
-        } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to ensure view save directory {} for {}", parent, request.namespace(), e);
+            List<Path> layoutFiles = listFiles(root, ".ini");
+            layoutFiles.addAll(listFiles(root.resolve(LAYOUTS_FOLDER), ".ini"));
+            List<Path> styleFiles = listFiles(root.resolve(STYLES_FOLDER), ".json");
+            if (styleFormat == StyleSnapshotFormat.BINARY) {
+                styleFiles.addAll(listFiles(root.resolve(STYLES_FOLDER), StyleBinarySerializer.FILE_EXTENSION));
+            }
+            List<String> layouts = layoutFiles.parallelStream()
+                    .map(path -> new String(readFile(path), StandardCharsets.UTF_8))
+                    .toList();
+            Map<String, PreloadedStyle> styles = styleFiles.parallelStream()
+                    .map(path -> readPreloadedStyle(namespace, path))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toMap(PreloadedStyle::viewId, style -> style, PreloadedStyle::preferred));
+            Map<String, String> snapshots = new HashMap<>();
+            Map<String, byte[]> binarySnapshots = new HashMap<>();
+            for (PreloadedStyle style : styles.values()) {
+                if (style.binary() != null) {
+                    binarySnapshots.put(style.viewId(), style.binary());
+                } else {
+                    snapshots.put(style.viewId(), style.json());
+                }
+            }
+            return Optional.of(new ViewPreload(layouts, snapshots, binarySnapshots));
+        } catch (IOException | UncheckedIOException e) {
+            MineGuiCore.LOGGER.error("Failed to preload view saves for {}", namespace, e);
+            return Optional.empty();
+        }
+    }
+
+    void deleteLayout(ViewPersistenceRequest request) {
+        Path hashed = ViewSavePaths.hashedLayout(request.namespace(), request.viewId());
+        deleteIfPresent(request.namespace(), hashed);
+        cleanupLegacyLayout(request, hashed);
+    }
+
+    private boolean write(ViewPersistenceRequest request, Path target, byte[] payload) {
+        knownAbsent.remove(target);
+        if (writeMode == ViewWriteMode.WRITE_BEHIND) {
+            ViewSaveWriter.getInstance().enqueueWrite(target, payload, request.namespace());
+            return true;
         }
+        return ViewSaveWriter.commit(target, payload, request.namespace());
     }
 
-    private boolean deleteIfExists(String namespace, Path path) {
+    private boolean deleteIfPresent(String namespace, Path path) {
+        if (!exists(path)) {
+            return false;
+        }
+        knownAbsent.add(path);
+        if (writeMode == ViewWriteMode.WRITE_BEHIND) {
+            ViewSaveWriter.getInstance().enqueueDelete(path, namespace);
+            return true;
+        }
+        return ViewSaveWriter.delete(path, namespace);
+    }
+
+    private boolean exists(Path path) {
+        ViewSaveWriter.PendingWrite pending = ViewSaveWriter.getInstance().pending(path);
+        if (pending != null) {
+            return !pending.deleted();
+        }
+        if (knownAbsent.contains(path)) {
+            return false;
+        }
+        if (Files.exists(path)) {
+            return true;
+        }
+        knownAbsent.add(path);
+        return false;
+    }
+
+    private Optional<byte[]> readBytes(Path path) throws IOException {
+        ViewSaveWriter.PendingWrite pending = ViewSaveWriter.getInstance().pending(path);
+        if (pending != null) {
+            return pending.deleted() ? Optional.empty() : Optional.of(pending.payload());
+        }
+        if (!exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readAllBytes(path));
+    }
+
+    private static List<Path> listFiles(Path directory, String extension) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().endsWith(extension) && Files.isRegularFile(path))
+                    .forEach(files::add);
+        }
+        return files;
+    }
+
+    private static byte[] readFile(Path path) {
         try {
-            return Files.deleteIfExists(path);
+            return Files.readAllBytes(path);
         } catch (IOException e) {
-            MineGuiCore.LOGGER.error("Failed to delete view save file {} for {}", path, namespace, e);
-            return false;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PreloadedStyle readPreloadedStyle(String namespace, Path path) {
+        byte[] bytes = readFile(path);
+        String fileName = path.getFileName().toString();
+        if (fileName.endsWith(StyleBinarySerializer.FILE_EXTENSION)) {
+            return StyleBinarySerializer.readViewId(bytes)
+                    .map(viewId -> new PreloadedStyle(snapshotViewId(viewId), null, bytes, 0))
+                    .orElse(null);
+        }
+        String json = new String(bytes, StandardCharsets.UTF_8);
+        String viewId = readSnapshotViewId(json);
+        if (viewId == null) {
+            MineGuiCore.LOGGER.warn("Skipping unreadable style snapshot {} in {}", path, namespace);
+            return null;
+        }
+        boolean hashed = ViewSavePaths.hashedStyle(namespace, viewId).getFileName().toString().equals(fileName);
+        return new PreloadedStyle(viewId, json, null, hashed ? 1 : 2);
+    }
+
+    private static String readSnapshotViewId(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("viewId".equals(reader.nextName())) {
+                    return snapshotViewId(reader.nextString());
+                }
+                reader.skipValue();
+            }
+            return snapshotViewId(null);
+        } catch (IOException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private static String snapshotViewId(String viewId) {
+        return viewId == null || viewId.isBlank() ? "view" : viewId;
+    }
+
+    private void cleanupLegacyLayout(ViewPersistenceRequest request, Path currentPath) {
+        Path legacy = ViewSavePaths.legacyLayout(request.namespace(), request.viewId());
+        if (!legacy.equals(currentPath)) {
+            deleteIfPresent(request.namespace(), legacy);
+        }
+    }
+
+    private void cleanupLegacyStyle(ViewPersistenceRequest request, Path currentPath) {
+        Path legacy = ViewSavePaths.legacyStyle(request.namespace(), request.viewId());
+        if (!legacy.equals(currentPath)) {
+            deleteIfPresent(request.namespace(), legacy);
+        }
+    }
+
+    private record PreloadedStyle(String viewId, String json, byte[] binary, int priority) {
+        PreloadedStyle preferred(PreloadedStyle other) {
+            return other.priority < priority ? other : this;
         }
     }
 
@@ -127,6 +318,7 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
         private static final int DISPLAY_MAX_LENGTH = 48;
         private static final HexFormat HEX = HexFormat.of();
         private static final Pattern INVALID_FILENAME_CHARS = Pattern.compile("[^a-zA-Z0-9._-]");
+        private static final Map<String, String> HASHED_STEMS = new ConcurrentHashMap<>();
 
         private ViewSavePaths() {
         }
@@ -141,6 +333,11 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
             return base.resolve(hashedFileName(viewId, ".json"));
         }
 
+        static Path hashedBinaryStyle(String namespace, String viewId) {
+            Path base = GlobalConfigManager.getViewSavesDirectory(namespace).resolve(STYLES_FOLDER);
+            return base.resolve(hashedFileName(viewId, StyleBinarySerializer.FILE_EXTENSION));
+        }
+
         static Path legacyLayout(String namespace, String viewId) {
             Path base = GlobalConfigManager.getViewSavesDirectory(namespace);
             return base.resolve(legacyFileName(viewId, ".ini"));
@@ -152,14 +349,17 @@ public final class FileViewPersistenceAdapter implements ViewPersistenceAdapter
         }
 
         private static String hashedFileName(String viewId, String extension) {
-            String normalizedId = normalizeId(viewId);
+            return HASHED_STEMS.computeIfAbsent(normalizeId(viewId), ViewSavePaths::hashedStem) + extension;
+        }
+
+        private static String hashedStem(String normalizedId) {
             String hashed = hash(normalizedId);
             String display = truncate(sanitize(normalizedId));
             if (display.isBlank()) {
                 display = "view";
             }
             String hashSegment = hashed.length() > HASH_PREFIX_LENGTH ? hashed.substring(0, HASH_PREFIX_LENGTH) : hashed;
-            return display + "-" + hashSegment + extension;
+            return display + "-" + hashSegment;
         }
 
         private static String legacyFileName(String viewId, String extension) {
@@ -0,0 +1,204 @@
+package tytoo.minegui.persistence;
+
+import tytoo.minegui.MineGuiCore;
+import tytoo.minegui.config.GlobalConfigManager;
+import tytoo.minegui.style.StyleBinarySerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class LogViewPersistenceAdapter implements ViewPersistenceAdapter {
+    public static final String LOG_FILE_NAME = "views.mglog";
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Map<String, ViewLog> logs = new ConcurrentHashMap<>();
+    private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+    private final Set<String> migrated = ConcurrentHashMap.newKeySet();
+    private final FileViewPersistenceAdapter legacy = new FileViewPersistenceAdapter(StyleSnapshotFormat.JSON, ViewWriteMode.SYNCHRONOUS);
+    private final StyleSnapshotFormat styleFormat;
+
+    public LogViewPersistenceAdapter() {
+        this(StyleSnapshotFormat.JSON);
+    }
+
+    public LogViewPersistenceAdapter(StyleSnapshotFormat styleFormat) {
+        this.styleFormat = styleFormat != null ? styleFormat : StyleSnapshotFormat.JSON;
+    }
+
+    @Override
+    public Optional<String> loadLayout(ViewPersistenceRequest request) {
+        ViewLog log = log(request.namespace());
+        if (log == null) {
+            return legacy.loadLayout(request);
+        }
+        migrate(log, request);
+        byte[] payload = log.read(ViewLog.KIND_LAYOUT, request.viewId());
+        return payload != null ? Optional.of(new String(payload, StandardCharsets.UTF_8)) : Optional.empty();
+    }
+
+    @Override
+    public void saveLayout(ViewPersistenceRequest request, String iniContent) {
+        if (iniContent == null || iniContent.isEmpty()) {
+            return;
+        }
+        ViewLog log = log(request.namespace());
+        if (log == null) {
+            legacy.saveLayout(request, iniContent);
+            return;
+        }
+        migrate(log, request);
+        log.append(ViewLog.KIND_LAYOUT, request.viewId(), iniContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<String> loadStyleSnapshot(ViewPersistenceRequest request) {
+        ViewLog log = log(request.namespace());
+        if (log == null) {
+            return legacy.loadStyleSnapshot(request);
+        }
+        migrate(log, request);
+        if (styleFormat == StyleSnapshotFormat.BINARY) {
+            Optional<String> decoded = loadBinaryStyleSnapshot(request)
+                    .flatMap(StyleBinarySerializer::fromBinary)
+                    .map(StyleBinarySerializer.Snapshot::toJson);
+            if (decoded.isPresent()) {
+                return decoded;
+            }
+        }
+        byte[] json = log.read(ViewLog.KIND_STYLE_JSON, request.viewId());
+        return json != null ? Optional.of(new String(json, StandardCharsets.UTF_8)) : Optional.empty();
+    }
+
+    @Override
+    public Optional<byte[]> loadBinaryStyleSnapshot(ViewPersistenceRequest request) {
+        ViewLog log = log(request.namespace());
+        if (log == null) {
+            return legacy.loadBinaryStyleSnapshot(request);
+        }
+        migrate(log, request);
+        return Optional.ofNullable(log.read(ViewLog.KIND_STYLE_BINARY, request.viewId()));
+    }
+
+    @Override
+    public boolean storeStyleSnapshot(ViewStyleSnapshot snapshot) {
+        ViewPersistenceRequest request = snapshot.request();
+        ViewLog log = log(request.namespace());
+        if (log == null) {
+            return legacy.storeStyleSnapshot(snapshot);
+        }
+        migrate(log, request);
+        String viewId = request.viewId();
+        if (snapshot.deleted()) {
+            boolean deleted = log.append(ViewLog.KIND_STYLE_JSON, viewId, null);
+            deleted |= log.append(ViewLog.KIND_STYLE_BINARY, viewId, null);
+            return deleted;
+        }
+        if (styleFormat == StyleSnapshotFormat.BINARY && snapshot.hasBinary()) {
+            if (!log.append(ViewLog.KIND_STYLE_BINARY, viewId, snapshot.snapshotBinary())) {
+                return false;
+            }
+            log.append(ViewLog.KIND_STYLE_JSON, viewId, null);
+            return true;
+        }
+        if (!log.append(ViewLog.KIND_STYLE_JSON, viewId, snapshot.snapshotJson().getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        log.append(ViewLog.KIND_STYLE_BINARY, viewId, null);
+        return true;
+    }
+
+    @Override
+    public boolean acceptsBinaryStyleSnapshots() {
+        return styleFormat == StyleSnapshotFormat.BINARY;
+    }
+
+    @Override
+    public void flush() {
+        ViewSaveWriter.getInstance().flush(FLUSH_TIMEOUT);
+        for (ViewLog log : logs.values()) {
+            log.force();
+        }
+    }
+
+    @Override
+    public Optional<ViewPreload> loadAll(String namespace) {
+        ViewLog log = log(namespace);
+        if (log == null) {
+            return legacy.loadAll(namespace);
+        }
+        Optional<ViewPreload> unmigrated = legacy.loadAll(namespace);
+        if (unmigrated.isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> layouts = new ArrayList<>(unmigrated.get().layouts());
+        for (byte[] payload : log.readAll(ViewLog.KIND_LAYOUT).values()) {
+            layouts.add(new String(payload, StandardCharsets.UTF_8));
+        }
+        Map<String, String> snapshots = new HashMap<>(unmigrated.get().styleSnapshots());
+        log.readAll(ViewLog.KIND_STYLE_JSON).forEach((viewId, payload) -> snapshots.put(viewId, new String(payload, StandardCharsets.UTF_8)));
+        Map<String, byte[]> binarySnapshots = log.readAll(ViewLog.KIND_STYLE_BINARY);
+        binarySnapshots.keySet().forEach(snapshots::remove);
+        return Optional.of(new ViewPreload(layouts, snapshots, binarySnapshots));
+    }
+
+    @Override
+    public void close() {
+        flush();
+        for (Map.Entry<String, ViewLog> entry : logs.entrySet()) {
+            if (logs.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().close();
+            }
+        }
+    }
+
+    private ViewLog log(String namespace) {
+        ViewLog existing = logs.get(namespace);
+        if (existing != null || unavailable.contains(namespace)) {
+            return existing;
+        }
+        return logs.computeIfAbsent(namespace, this::open);
+    }
+
+    private ViewLog open(String namespace) {
+        Path path = GlobalConfigManager.getViewSavesDirectory(namespace).resolve(LOG_FILE_NAME);
+        try {
+            return ViewLog.open(path);
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to open view save log {} for {}, falling back to per-view files", path, namespace, e);
+            unavailable.add(namespace);
+            return null;
+        }
+    }
+
+    private void migrate(ViewLog log, ViewPersistenceRequest request) {
+        String viewId = request.viewId();
+        if (!migrated.add(request.namespace() + '\u0000' + viewId)) {
+            return;
+        }
+        if (!log.contains(ViewLog.KIND_LAYOUT, viewId)) {
+            legacy.loadLayout(request).ifPresent(ini -> log.append(
+                    ViewLog.KIND_LAYOUT,
+                    viewId,
+                    ini.getBytes(StandardCharsets.UTF_8),
+                    () -> legacy.deleteLayout(request)
+            ));
+        }
+        if (!log.contains(ViewLog.KIND_STYLE_JSON, viewId) && !log.contains(ViewLog.KIND_STYLE_BINARY, viewId)) {
+            legacy.loadStyleSnapshot(request).ifPresent(json -> log.append(
+                    ViewLog.KIND_STYLE_JSON,
+                    viewId,
+                    json.getBytes(StandardCharsets.UTF_8),
+                    () -> legacy.storeStyleSnapshot(ViewStyleSnapshot.deleted(request))
+            ));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package tytoo.minegui.persistence;
+
+public enum StyleSnapshotFormat {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,403 @@
+package tytoo.minegui.persistence;
+
+import tytoo.minegui.MineGuiCore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+final class ViewLog implements AutoCloseable {
+    static final byte KIND_LAYOUT = 1;
+    static final byte KIND_STYLE_JSON = 2;
+    static final byte KIND_STYLE_BINARY = 3;
+
+    private static final int MAGIC = 0x4D47564C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 4 + 1 + 4 + 4 + 4;
+    private static final int TOMBSTONE = -1;
+    private static final long COMPACTION_MIN_DEAD_BYTES = 64L * 1024L;
+
+    private final Path path;
+    private final Map<Key, Slot> index = new HashMap<>();
+    private final Map<Key, Pending> unwritten = new HashMap<>();
+    private FileChannel channel;
+    private long size;
+    private long deadBytes;
+    private boolean compactionFailed;
+    private boolean closed;
+
+    private ViewLog(Path path) {
+        this.path = path;
+    }
+
+    static ViewLog open(Path path) throws IOException {
+        ViewLog log = new ViewLog(path);
+        log.load();
+        log.compactIfNeeded();
+        return log;
+    }
+
+    synchronized byte[] read(byte kind, String viewId) {
+        Key key = new Key(kind, viewId);
+        Pending pending = unwritten.get(key);
+        if (pending != null) {
+            return pending.payload();
+        }
+        Slot slot = index.get(key);
+        return slot != null ? readSlot(slot) : null;
+    }
+
+    synchronized Map<String, byte[]> readAll(byte kind) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<Key, Slot> entry : index.entrySet()) {
+            Key key = entry.getKey();
+            if (key.kind() == kind && !unwritten.containsKey(key)) {
+                byte[] payload = readSlot(entry.getValue());
+                if (payload != null) {
+                    result.put(key.viewId(), payload);
+                }
+            }
+        }
+        for (Map.Entry<Key, Pending> entry : unwritten.entrySet()) {
+            Key key = entry.getKey();
+            if (key.kind() == kind && !entry.getValue().tombstone()) {
+                result.put(key.viewId(), entry.getValue().payload());
+            }
+        }
+        return result;
+    }
+
+    synchronized boolean contains(byte kind, String viewId) {
+        Key key = new Key(kind, viewId);
+        Pending pending = unwritten.get(key);
+        return pending != null ? !pending.tombstone() : index.containsKey(key);
+    }
+
+    boolean append(byte kind, String viewId, byte[] payload) {
+        return append(kind, viewId, payload, null);
+    }
+
+    synchronized boolean append(byte kind, String viewId, byte[] payload, Runnable onWritten) {
+        if (closed) {
+            return false;
+        }
+        Key key = new Key(kind, viewId);
+        Pending previous = unwritten.get(key);
+        boolean present = previous != null ? !previous.tombstone() : index.containsKey(key);
+        if (payload == null && !present) {
+            return false;
+        }
+        Runnable callback = previous != null ? chain(previous.onWritten(), onWritten) : onWritten;
+        unwritten.put(key, new Pending(payload, callback));
+        if (previous == null) {
+            ViewSaveWriter.getInstance().enqueueTask(() -> writePending(key));
+        }
+        return true;
+    }
+
+    synchronized void force() {
+        if (closed) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to sync view save log {}", path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!unwritten.isEmpty()) {
+            MineGuiCore.LOGGER.warn("Closing view save log {} with {} unwritten records", path, unwritten.size());
+            unwritten.clear();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to close view save log {}", path, e);
+        }
+    }
+
+    private void writePending(Key key) {
+        Pending pending;
+        ByteBuffer record;
+        long recordOffset;
+        int keyLength;
+        synchronized (this) {
+            pending = unwritten.get(key);
+            if (closed || pending == null) {
+                return;
+            }
+            if (pending.tombstone() && !index.containsKey(key)) {
+                unwritten.remove(key);
+                runCallback(pending);
+                return;
+            }
+            byte[] keyBytes = key.viewId().getBytes(StandardCharsets.UTF_8);
+            keyLength = keyBytes.length;
+            record = encode(key.kind(), keyBytes, pending.payload());
+            recordOffset = size;
+            size += record.capacity();
+        }
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record, recordOffset + record.position());
+            }
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to append view save record for {} to {}", key.viewId(), path, e);
+            synchronized (this) {
+                size = recordOffset;
+                if (!unwritten.remove(key, pending) && unwritten.containsKey(key)) {
+                    ViewSaveWriter.getInstance().enqueueTask(() -> writePending(key));
+                }
+            }
+            return;
+        }
+        boolean settled;
+        synchronized (this) {
+            Slot previous = index.get(key);
+            if (previous != null) {
+                deadBytes += previous.recordLength();
+            }
+            if (pending.tombstone()) {
+                index.remove(key);
+                deadBytes += record.capacity();
+            } else {
+                long payloadOffset = recordOffset + 4 + 1 + 4 + keyLength + 4;
+                index.put(key, new Slot(payloadOffset, pending.payload().length, record.capacity()));
+            }
+            settled = unwritten.remove(key, pending);
+            if (!settled && unwritten.containsKey(key)) {
+                ViewSaveWriter.getInstance().enqueueTask(() -> writePending(key));
+            }
+        }
+        if (settled) {
+            runCallback(pending);
+        }
+        compactIfNeeded();
+    }
+
+    private byte[] readSlot(Slot slot) {
+        ByteBuffer payload = ByteBuffer.allocate(slot.length());
+        try {
+            while (payload.hasRemaining()) {
+                if (channel.read(payload, slot.offset() + payload.position()) < 0) {
+                    throw new IOException("Unexpected end of view save log " + path);
+                }
+            }
+            return payload.array();
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to read view save record for {}", path, e);
+            return null;
+        }
+    }
+
+    private void load() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            writeHeader(channel);
+            size = HEADER_SIZE;
+            return;
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("View save log too large: " + path);
+        }
+        ByteBuffer view = ByteBuffer.allocate((int) fileSize);
+        while (view.hasRemaining()) {
+            if (channel.read(view, view.position()) < 0) {
+                break;
+            }
+        }
+        fileSize = view.position();
+        if (view.getInt(0) != MAGIC || view.getInt(4) != VERSION) {
+            throw new IOException("Unrecognized view save log header in " + path);
+        }
+        long valid = scan(view, fileSize);
+        size = valid;
+        if (valid < fileSize) {
+            MineGuiCore.LOGGER.warn("Discarding {} bytes of incomplete records from {}", fileSize - valid, path);
+            channel.truncate(valid);
+        }
+    }
+
+    private long scan(ByteBuffer view, long fileSize) {
+        int position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_OVERHEAD <= fileSize) {
+            int recordLength = view.getInt(position);
+            if (recordLength < RECORD_OVERHEAD || position + (long) recordLength > fileSize) {
+                break;
+            }
+            byte kind = view.get(position + 4);
+            int keyLength = view.getInt(position + 5);
+            int payloadLengthOffset = position + 9 + keyLength;
+            if (keyLength < 0 || payloadLengthOffset + 8 > position + recordLength) {
+                break;
+            }
+            int payloadLength = view.getInt(payloadLengthOffset);
+            int payloadOffset = payloadLengthOffset + 4;
+            int storedLength = payloadLength == TOMBSTONE ? 0 : payloadLength;
+            if (storedLength < 0 || payloadOffset + storedLength + 4 != position + recordLength) {
+                break;
+            }
+            crc.reset();
+            crc.update(view.slice(position + 4, recordLength - 8));
+            if ((int) crc.getValue() != view.getInt(position + recordLength - 4)) {
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            view.get(position + 9, keyBytes);
+            Key key = new Key(kind, new String(keyBytes, StandardCharsets.UTF_8));
+            Slot previous = index.get(key);
+            if (previous != null) {
+                deadBytes += previous.recordLength();
+            }
+            if (payloadLength == TOMBSTONE) {
+                index.remove(key);
+                deadBytes += recordLength;
+            } else {
+                index.put(key, new Slot(payloadOffset, payloadLength, recordLength));
+            }
+            position += recordLength;
+        }
+        return position;
+    }
+
+    private synchronized void compactIfNeeded() {
+        if (closed || compactionFailed) {
+            return;
+        }
+        if (deadBytes < COMPACTION_MIN_DEAD_BYTES || deadBytes * 2L < size) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            compactionFailed = true;
+            MineGuiCore.LOGGER.error("Failed to compact view save log {}", path, e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        Map<Key, Slot> compacted = new HashMap<>();
+        long compactedSize = HEADER_SIZE;
+        try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(output);
+            for (Map.Entry<Key, Slot> entry : index.entrySet()) {
+                Key key = entry.getKey();
+                byte[] payload = readSlot(entry.getValue());
+                if (payload == null) {
+                    throw new IOException("Unreadable record for " + key.viewId() + " in " + path);
+                }
+                byte[] keyBytes = key.viewId().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer record = encode(key.kind(), keyBytes, payload);
+                while (record.hasRemaining()) {
+                    output.write(record, compactedSize + record.position());
+                }
+                long payloadOffset = compactedSize + 4 + 1 + 4 + keyBytes.length + 4;
+                compacted.put(key, new Slot(payloadOffset, payload.length, record.capacity()));
+                compactedSize += record.capacity();
+            }
+            output.force(true);
+        }
+        channel.close();
+        try {
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        MineGuiCore.LOGGER.info("Compacted view save log {} from {} to {} bytes", path, size, compactedSize);
+        index.clear();
+        index.putAll(compacted);
+        size = compactedSize;
+        deadBytes = 0L;
+    }
+
+    private static Runnable chain(Runnable first, Runnable second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return () -> {
+            first.run();
+            second.run();
+        };
+    }
+
+    private static void runCallback(Pending pending) {
+        if (pending.onWritten() == null) {
+            return;
+        }
+        try {
+            pending.onWritten().run();
+        } catch (RuntimeException e) {
+            MineGuiCore.LOGGER.error("View save log callback failed", e);
+        }
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            target.write(header, header.position());
+        }
+    }
+
+    private static ByteBuffer encode(byte kind, byte[] keyBytes, byte[] payload) {
+        int payloadLength = payload != null ? payload.length : 0;
+        int recordLength = RECORD_OVERHEAD + keyBytes.length + payloadLength;
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(recordLength);
+        record.put(kind);
+        record.putInt(keyBytes.length);
+        record.put(keyBytes);
+        record.putInt(payload != null ? payloadLength : TOMBSTONE);
+        if (payload != null) {
+            record.put(payload);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, recordLength - 8);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private record Key(byte kind, String viewId) {
+    }
+
+    private record Slot(long offset, int length, int recordLength) {
+    }
+
+    private record Pending(byte[] payload, Runnable onWritten) {
+        boolean tombstone() {
+            return payload == null;
+        }
+    }
+}
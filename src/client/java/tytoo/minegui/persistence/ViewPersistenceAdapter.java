@@ -10,8 +10,27 @@ public interface ViewPersistenceAdapter {
 
     Optional<String> loadStyleSnapshot(ViewPersistenceRequest request);
 
+    default Optional<byte[]> loadBinaryStyleSnapshot(ViewPersistenceRequest request) {
+        return Optional.empty();
+    }
+
     boolean storeStyleSnapshot(ViewStyleSnapshot snapshot);
 
+    default boolean acceptsBinaryStyleSnapshots() {
+        return false;
+    }
+
+    default void flush() {
+    }
+
+    default void close() {
+        flush();
+    }
+
+    default Optional<ViewPreload> loadAll(String namespace) {
+        return Optional.empty();
+    }
+
     default int exportStyleSnapshots(Collection<ViewStyleSnapshot> snapshots) {
         if (snapshots == null || snapshots.isEmpty()) {
             return 0;
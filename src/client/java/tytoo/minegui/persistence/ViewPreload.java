@@ -0,0 +1,20 @@
+package tytoo.minegui.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+public record ViewPreload(List<String> layouts, Map<String, String> styleSnapshots, Map<String, byte[]> binaryStyleSnapshots) {
+    public ViewPreload {
+        layouts = layouts != null ? List.copyOf(layouts) : List.of();
+        styleSnapshots = styleSnapshots != null ? Map.copyOf(styleSnapshots) : Map.of();
+        binaryStyleSnapshots = binaryStyleSnapshots != null ? Map.copyOf(binaryStyleSnapshots) : Map.of();
+    }
+
+    public ViewPreload(List<String> layouts, Map<String, String> styleSnapshots) {
+        this(layouts, styleSnapshots, Map.of());
+    }
+
+    public static ViewPreload empty() {
+        return new ViewPreload(List.of(), Map.of());
+    }
+}
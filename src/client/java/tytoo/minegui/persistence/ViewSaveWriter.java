@@ -0,0 +1,184 @@
+package tytoo.minegui.persistence;
+
+import tytoo.minegui.MineGuiCore;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class ViewSaveWriter {
+    private static final ViewSaveWriter INSTANCE = new ViewSaveWriter();
+
+    private final Object lock = new Object();
+    private final Map<Path, PendingWrite> pending = new LinkedHashMap<>();
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private PendingWrite inFlight;
+    private Runnable taskInFlight;
+    private Thread worker;
+
+    private ViewSaveWriter() {
+    }
+
+    static ViewSaveWriter getInstance() {
+        return INSTANCE;
+    }
+
+    static boolean commit(Path target, byte[] payload, String namespace) {
+        Path parent = target.getParent();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(temp, payload);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to write view save file {} for {}", target, namespace, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+    }
+
+    static boolean delete(Path target, String namespace) {
+        try {
+            return Files.deleteIfExists(target);
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to delete view save file {} for {}", target, namespace, e);
+            return false;
+        }
+    }
+
+    void enqueueWrite(Path target, byte[] payload, String namespace) {
+        enqueue(new PendingWrite(target, payload, namespace));
+    }
+
+    void enqueueDelete(Path target, String namespace) {
+        enqueue(new PendingWrite(target, null, namespace));
+    }
+
+    void enqueueTask(Runnable task) {
+        synchronized (lock) {
+            tasks.addLast(task);
+            ensureWorker();
+            lock.notifyAll();
+        }
+    }
+
+    PendingWrite pending(Path target) {
+        synchronized (lock) {
+            PendingWrite queued = pending.get(target);
+            if (queued != null) {
+                return queued;
+            }
+            PendingWrite current = inFlight;
+            return current != null && current.target().equals(target) ? current : null;
+        }
+    }
+
+    boolean flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (lock) {
+            while (!idle()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    int outstanding = pending.size() + tasks.size() + (inFlight != null ? 1 : 0) + (taskInFlight != null ? 1 : 0);
+                    MineGuiCore.LOGGER.warn("Timed out flushing {} pending view save writes", outstanding);
+                    return false;
+                }
+                try {
+                    lock.wait(Math.max(1L, remaining / 1_000_000L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean idle() {
+        return pending.isEmpty() && tasks.isEmpty() && inFlight == null && taskInFlight == null;
+    }
+
+    private void enqueue(PendingWrite write) {
+        synchronized (lock) {
+            pending.remove(write.target());
+            pending.put(write.target(), write);
+            ensureWorker();
+            lock.notifyAll();
+        }
+    }
+
+    private void ensureWorker() {
+        if (worker != null && worker.isAlive()) {
+            return;
+        }
+        Thread thread = new Thread(this::drain, "MineGui View Save Writer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    private void drain() {
+        while (true) {
+            PendingWrite next = null;
+            Runnable task;
+            synchronized (lock) {
+                while (pending.isEmpty() && tasks.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        worker = null;
+                        return;
+                    }
+                }
+                task = tasks.pollFirst();
+                if (task == null) {
+                    Iterator<PendingWrite> iterator = pending.values().iterator();
+                    next = iterator.next();
+                    iterator.remove();
+                }
+                inFlight = next;
+                taskInFlight = task;
+            }
+            try {
+                if (task != null) {
+                    task.run();
+                } else if (next.deleted()) {
+                    delete(next.target(), next.namespace());
+                } else {
+                    commit(next.target(), next.payload(), next.namespace());
+                }
+            } catch (RuntimeException e) {
+                MineGuiCore.LOGGER.error("Unexpected failure in view save writer", e);
+            } finally {
+                synchronized (lock) {
+                    inFlight = null;
+                    taskInFlight = null;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    record PendingWrite(Path target, byte[] payload, String namespace) {
+        boolean deleted() {
+            return payload == null;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package tytoo.minegui.persistence;
 
-public record ViewStyleSnapshot(ViewPersistenceRequest request, String snapshotJson, boolean deleted) {
+public record ViewStyleSnapshot(ViewPersistenceRequest request, String snapshotJson, byte[] snapshotBinary, boolean deleted) {
     public ViewStyleSnapshot {
         if (request == null) {
             throw new IllegalArgumentException("request cannot be null");
@@ -10,11 +10,23 @@ public record ViewStyleSnapshot(ViewPersistenceRequest request, String snapshotJ
         }
     }
 
+    public ViewStyleSnapshot(ViewPersistenceRequest request, String snapshotJson, boolean deleted) {
+        this(request, snapshotJson, null, deleted);
+    }
+
     public static ViewStyleSnapshot present(ViewPersistenceRequest request, String snapshotJson) {
-        return new ViewStyleSnapshot(request, snapshotJson, false);
+        return new ViewStyleSnapshot(request, snapshotJson, null, false);
+    }
+
+    public static ViewStyleSnapshot present(ViewPersistenceRequest request, String snapshotJson, byte[] snapshotBinary) {
+        return new ViewStyleSnapshot(request, snapshotJson, snapshotBinary, false);
     }
 
     public static ViewStyleSnapshot deleted(ViewPersistenceRequest request) {
-        return new ViewStyleSnapshot(request, null, true);
+        return new ViewStyleSnapshot(request, null, null, true);
+    }
+
+    public boolean hasBinary() {
+        return snapshotBinary != null && snapshotBinary.length > 0;
     }
 }
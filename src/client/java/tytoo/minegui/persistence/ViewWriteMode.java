@@ -0,0 +1,6 @@
+package tytoo.minegui.persistence;
+
+public enum ViewWriteMode {
+    SYNCHRONOUS,
+    WRITE_BEHIND
+}
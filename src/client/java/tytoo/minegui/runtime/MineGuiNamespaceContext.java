@@ -116,5 +116,6 @@ public final class MineGuiNamespaceContext implements MineGuiContext {
     @Override
     public void setDockspaceCustomizer(DockspaceCustomizer customizer) {
         dockspaceCustomizer = customizer != null ? customizer : DockspaceCustomizer.noop();
+        MineGuiNamespaces.markChanged();
     }
 }
@@ -3,6 +3,7 @@ package tytoo.minegui.runtime;
 import tytoo.minegui.MineGuiInitializationOptions;
 import tytoo.minegui.config.GlobalConfigManager;
 import tytoo.minegui.imgui.dock.DockspaceCustomizer;
+import tytoo.minegui.manager.UIManager;
 import tytoo.minegui.manager.ViewSaveManager;
 import tytoo.minegui.persistence.ViewPersistenceAdapter;
 import tytoo.minegui.runtime.cursor.CursorPolicyRegistry;
@@ -13,9 +14,11 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class MineGuiNamespaces {
     private static final Map<String, MineGuiNamespaceContext> CONTEXTS = new ConcurrentHashMap<>();
+    private static final AtomicLong GENERATION = new AtomicLong();
 
     private MineGuiNamespaces() {
     }
@@ -42,6 +45,8 @@ public final class MineGuiNamespaces {
         }
         MineGuiNamespaceContext context = new MineGuiNamespaceContext(namespace, options);
         CONTEXTS.put(namespace, context);
+        GENERATION.incrementAndGet();
+        context.viewSaves().preload();
         return context;
     }
 
@@ -49,23 +54,32 @@ public final class MineGuiNamespaces {
         return CONTEXTS.get(namespace);
     }
 
+    public static long generation() {
+        return GENERATION.get();
+    }
+
+    static void markChanged() {
+        GENERATION.incrementAndGet();
+    }
+
     public static Collection<MineGuiNamespaceContext> all() {
         return Collections.unmodifiableCollection(CONTEXTS.values());
     }
 
     public static boolean anyVisible() {
-        boolean anyVisible = false;
-        for (MineGuiNamespaceContext context : CONTEXTS.values()) {
-            if (context.ui().hasVisibleViews()) {
-                anyVisible = true;
-            }
-        }
+        boolean anyVisible = UIManager.anyVisibleViews();
         if (anyVisible) {
             CursorPolicyRegistry.ensureUnlockedIfRequested();
         }
         return anyVisible;
     }
 
+    public static void flushConfigs() {
+        for (MineGuiNamespaceContext context : CONTEXTS.values()) {
+            context.config().flush();
+        }
+    }
+
     public static void saveAllConfigs() {
         for (MineGuiNamespaceContext context : CONTEXTS.values()) {
             GlobalConfigManager.save(context.namespace());
@@ -1,14 +1,30 @@
 package tytoo.minegui.runtime.config;
 
+import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.config.*;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 
 public final class NamespaceConfigService {
+    public static final Duration DEFAULT_SAVE_DELAY = Duration.ofMillis(500);
+    private static final ScheduledExecutorService SAVE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MineGui Config Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final String namespace;
     private final NamespaceConfigStore store;
+    private final Object saveLock = new Object();
     private volatile NamespaceConfig current;
+    private volatile Duration saveDelay = DEFAULT_SAVE_DELAY;
+    private ScheduledFuture<?> pendingSave;
 
     public NamespaceConfigService(String namespace, NamespaceConfigStore store) {
         this.namespace = Objects.requireNonNull(namespace, "namespace");
@@ -25,6 +41,7 @@ public final class NamespaceConfigService {
     }
 
     public synchronized NamespaceConfig reload() {
+        flush();
         current = store.load(namespace);
         return current;
     }
@@ -36,12 +53,84 @@ public final class NamespaceConfigService {
             throw new IllegalArgumentException("Cannot set config for namespace '" + next.namespace() + "' on service for '" + namespace + "'");
         }
         current = next;
-        store.save(next);
+        applyCurrent();
+        scheduleSave();
         return current;
     }
 
     public void save() {
-        store.save(current);
+        synchronized (this) {
+            cancelPendingSave();
+        }
+        writeCurrent();
+    }
+
+    public void flush() {
+        boolean pending;
+        synchronized (this) {
+            pending = cancelPendingSave();
+        }
+        if (pending) {
+            writeCurrent();
+        }
+    }
+
+    public Duration saveDelay() {
+        return saveDelay;
+    }
+
+    public void setSaveDelay(Duration delay) {
+        this.saveDelay = delay != null && !delay.isNegative() ? delay : DEFAULT_SAVE_DELAY;
+    }
+
+    private void scheduleSave() {
+        long delayMillis = saveDelay.toMillis();
+        if (delayMillis <= 0L) {
+            cancelPendingSave();
+            writeCurrent();
+            return;
+        }
+        if (pendingSave != null) {
+            return;
+        }
+        pendingSave = SAVE_EXECUTOR.schedule(this::runScheduledSave, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduledSave() {
+        synchronized (this) {
+            if (pendingSave == null) {
+                return;
+            }
+            pendingSave = null;
+        }
+        writeCurrent();
+    }
+
+    private boolean cancelPendingSave() {
+        if (pendingSave == null) {
+            return false;
+        }
+        pendingSave.cancel(false);
+        pendingSave = null;
+        return true;
+    }
+
+    private void applyCurrent() {
+        try {
+            store.apply(current);
+        } catch (RuntimeException e) {
+            MineGuiCore.LOGGER.error("Failed to apply config for namespace {}", namespace, e);
+        }
+    }
+
+    private void writeCurrent() {
+        synchronized (saveLock) {
+            try {
+                store.persist(current);
+            } catch (RuntimeException e) {
+                MineGuiCore.LOGGER.error("Failed to save config for namespace {}", namespace, e);
+            }
+        }
     }
 
     public ConfigFeatureProfile featureProfile() {
@@ -4,20 +4,21 @@ import imgui.ImGui;
 import imgui.ImGuiStyle;
 import imgui.ImVec4;
 import imgui.flag.ImGuiCol;
-import lombok.Getter;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public final class ColorPalette {
-    private static final ColorPalette EMPTY = new ColorPalette(Collections.emptyMap());
+    private static final long ALL_COLORS = ImGuiCol.COUNT == Long.SIZE ? -1L : (1L << ImGuiCol.COUNT) - 1L;
+    private static final ColorPalette EMPTY = new ColorPalette(new int[ImGuiCol.COUNT], 0L);
 
-    @Getter
-    private final Map<Integer, Integer> colors;
+    private final int[] colors;
+    private final long mask;
 
-    private ColorPalette(Map<Integer, Integer> colors) {
-        this.colors = Map.copyOf(colors);
+    private ColorPalette(int[] colors, long mask) {
+        this.colors = colors;
+        this.mask = mask;
     }
 
     public static ColorPalette empty() {
@@ -28,21 +29,40 @@ public final class ColorPalette {
         if (colors == null || colors.isEmpty()) {
             return empty();
         }
-        return new ColorPalette(colors);
+        int[] values = new int[ImGuiCol.COUNT];
+        long mask = 0L;
+        for (Map.Entry<Integer, Integer> entry : colors.entrySet()) {
+            Integer index = entry.getKey();
+            Integer color = entry.getValue();
+            if (index == null || color == null || !PackedStyle.isColorIndex(index)) {
+                continue;
+            }
+            values[index] = color;
+            mask |= 1L << index;
+        }
+        return mask != 0L ? new ColorPalette(values, mask) : empty();
     }
 
     public static ColorPalette fromStyle(ImGuiStyle style) {
         if (style == null) {
             return empty();
         }
-        Map<Integer, Integer> captured = new HashMap<>();
+        int[] values = new int[ImGuiCol.COUNT];
         ImVec4 buffer = new ImVec4();
         for (int index = 0; index < ImGuiCol.COUNT; index++) {
             style.getColor(index, buffer);
-            int packed = ImGui.getColorU32(buffer.x, buffer.y, buffer.z, buffer.w);
-            captured.put(index, packed);
+            values[index] = ImGui.getColorU32(buffer.x, buffer.y, buffer.z, buffer.w);
+        }
+        return new ColorPalette(values, ALL_COLORS);
+    }
+
+    static ColorPalette fromPacked(int[] packedColors, long mask) {
+        if (mask == 0L) {
+            return empty();
         }
-        return new ColorPalette(captured);
+        int[] values = new int[ImGuiCol.COUNT];
+        System.arraycopy(packedColors, 0, values, 0, ImGuiCol.COUNT);
+        return new ColorPalette(values, mask);
     }
 
     public static Builder builder() {
@@ -50,44 +70,150 @@ public final class ColorPalette {
     }
 
     public boolean isEmpty() {
-        return colors.isEmpty();
+        return mask == 0L;
+    }
+
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    public boolean hasColor(int index) {
+        return PackedStyle.isColorIndex(index) && (mask & (1L << index)) != 0L;
+    }
+
+    long mask() {
+        return mask;
+    }
+
+    public int getColor(int index, int fallback) {
+        return hasColor(index) ? colors[index] : fallback;
+    }
+
+    public void forEach(ColorConsumer consumer) {
+        long pending = mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            consumer.accept(index, colors[index]);
+        }
+    }
+
+    public Map<Integer, Integer> getColors() {
+        if (mask == 0L) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Integer> view = new LinkedHashMap<>();
+        forEach(view::put);
+        return Collections.unmodifiableMap(view);
     }
 
     public void applyTo(ImGuiStyle style) {
-        if (style == null || colors.isEmpty()) {
+        if (style == null) {
             return;
         }
-        colors.forEach(style::setColor);
+        long pending = mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            style.setColor(index, colors[index]);
+        }
+    }
+
+    void writeTo(PackedStyle target) {
+        long pending = mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            target.colors[index] = colors[index];
+        }
+        target.colorMask |= mask;
     }
 
     public ColorPalette mergedWith(ColorPalette overrides) {
         if (overrides == null || overrides.isEmpty()) {
             return this;
         }
-        if (colors.isEmpty()) {
+        if (isEmpty()) {
+            return overrides;
+        }
+        if ((overrides.mask & mask) == mask) {
             return overrides;
         }
-        Map<Integer, Integer> merged = new HashMap<>(colors);
-        merged.putAll(overrides.colors);
-        return new ColorPalette(merged);
+        int[] merged = colors.clone();
+        long pending = overrides.mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            merged[index] = overrides.colors[index];
+        }
+        return new ColorPalette(merged, mask | overrides.mask);
     }
 
     public ColorPalette withColor(int index, int color) {
-        Map<Integer, Integer> result = new HashMap<>(colors);
-        result.put(index, color);
-        return new ColorPalette(result);
+        if (!PackedStyle.isColorIndex(index)) {
+            return this;
+        }
+        if (hasColor(index) && colors[index] == color) {
+            return this;
+        }
+        int[] result = colors.clone();
+        result[index] = color;
+        return new ColorPalette(result, mask | (1L << index));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ColorPalette palette) || palette.mask != mask) {
+            return false;
+        }
+        long pending = mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            if (colors[index] != palette.colors[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(mask);
+        long pending = mask;
+        while (pending != 0L) {
+            int index = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            hash = 31 * hash + colors[index];
+        }
+        return hash;
+    }
+
+    @FunctionalInterface
+    public interface ColorConsumer {
+        void accept(int index, int color);
     }
 
     public static final class Builder {
-        private final Map<Integer, Integer> entries = new HashMap<>();
+        private final int[] entries = new int[ImGuiCol.COUNT];
+        private long mask;
 
         public Builder set(int index, int color) {
-            entries.put(index, color);
+            if (PackedStyle.isColorIndex(index)) {
+                entries[index] = color;
+                mask |= 1L << index;
+            }
             return this;
         }
 
         public ColorPalette build() {
-            return ColorPalette.of(entries);
+            if (mask == 0L) {
+                return ColorPalette.empty();
+            }
+            return new ColorPalette(entries.clone(), mask);
         }
     }
 }
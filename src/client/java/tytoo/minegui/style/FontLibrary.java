@@ -1,6 +1,8 @@
 package tytoo.minegui.style;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import imgui.*;
+import imgui.internal.ImGuiContext;
 import lombok.Getter;
 import net.fabricmc.loader.api.FabricLoader;
 import org.jetbrains.annotations.Nullable;
@@ -11,27 +13,58 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public final class FontLibrary {
     private static final FontLibrary INSTANCE = new FontLibrary();
     private static final ResourceId DEFAULT_FONT_KEY = ResourceId.of(MineGuiCore.ID, "default");
+    private static final float SIZE_TOLERANCE = 0.05f;
+    private static final int PREFETCH_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(PREFETCH_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "MineGui Font Prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService ATLAS_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MineGui Font Atlas Builder");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private final ConcurrentHashMap<FontVariant, ImFont> loadedFonts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ResourceId, FontSizeIndex> sizeIndex = new ConcurrentHashMap<>();
+    private final AtomicInteger fontGeneration = new AtomicInteger();
     private final ConcurrentHashMap<ResourceId, FontDescriptor> fontDescriptors = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<ResourceId, Boolean> warnedPostBuild = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<ResourceId, ResourceId> mergeParents = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<FontVariant, byte[]> fontData = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<FontSource, CompletableFuture<byte[]>> sourceData = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BakedVariant, ImFont> bakedFonts = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<FontVariant> loadOrder = new CopyOnWriteArrayList<>();
+    private final Set<FontVariant> runtimeRequests = ConcurrentHashMap.newKeySet();
+    private final Set<FontVariant> runtimeFailures = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ImFontAtlas> buildingAtlas = new ThreadLocal<>();
     private final ThreadLocal<Set<ResourceId>> loadingKeys = ThreadLocal.withInitial(HashSet::new);
     private final CopyOnWriteArrayList<Consumer<ImGuiIO>> registrationPhaseCallbacks = new CopyOnWriteArrayList<>();
     @Getter
     private volatile boolean registrationLocked;
+    private long retiredAtlasContext;
+    private RuntimeAtlasBuild runtimeBuild;
+    private volatile boolean atlasRebuildRequested;
 
     private FontLibrary() {
     }
@@ -48,6 +81,10 @@ public final class FontLibrary {
         return DEFAULT_FONT_KEY;
     }
 
+    public int fontGeneration() {
+        return fontGeneration.get();
+    }
+
     public void onRegistrationPhase(Consumer<ImGuiIO> registrar) {
         Objects.requireNonNull(registrar, "registrar");
         if (registrationLocked) {
@@ -79,6 +116,7 @@ public final class FontLibrary {
         Objects.requireNonNull(descriptor, "descriptor");
         mergeParents.remove(key);
         fontDescriptors.put(key, descriptor);
+        prefetch(descriptor.source());
     }
 
     public void registerMergedFont(ResourceId baseKey, ResourceId key, FontSource source, float size) {
@@ -100,10 +138,11 @@ public final class FontLibrary {
         Objects.requireNonNull(baseKey, "baseKey");
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(source, "source");
+        GlyphRangeSupplier subsetRanges = glyphRanges != null ? GlyphUsage.getInstance().subset(glyphRanges) : null;
         FontDescriptor descriptor = new FontDescriptor(source, size, config -> {
             config.setMergeMode(true);
-            if (glyphRanges != null) {
-                short[] ranges = glyphRanges.supply(ImGui.getIO().getFonts());
+            if (subsetRanges != null) {
+                short[] ranges = subsetRanges.supply(targetAtlas());
                 if (ranges != null && ranges.length > 0) {
                     config.setGlyphRanges(ranges);
                 }
@@ -136,12 +175,11 @@ public final class FontLibrary {
         float targetSize = sizeOverride != null ? sizeOverride : descriptor.size();
         targetSize = sanitizeRequestedSize(targetSize, descriptor.size());
         float normalizedSize = normalizeSize(targetSize);
-        FontVariant targetVariant = new FontVariant(descriptorKey, normalizedSize);
         ImFont cached = findCachedFont(descriptorKey, normalizedSize);
         if (cached != null) {
             return cached;
         }
-        return loadFont(targetVariant, descriptor);
+        return loadFont(new FontVariant(descriptorKey, normalizedSize), descriptor);
     }
 
     private ImFont loadFont(FontVariant variant, FontDescriptor descriptor) {
@@ -163,13 +201,6 @@ public final class FontLibrary {
                     return null;
                 }
             }
-            ImGuiIO io = ImGui.getIO();
-            if (io.getFonts().isBuilt()) {
-                if (warnedPostBuild.putIfAbsent(variant.key(), Boolean.TRUE) == null) {
-                    MineGuiCore.LOGGER.warn("Skipping font load for {} at runtime; register fonts during mod startup before MineGui initializes.", variant.key());
-                }
-                return null;
-            }
             float sanitizedSize = variant.size() > 0f ? variant.size() : sanitizeRequestedSize(variant.size(), descriptor.size());
             if (sanitizedSize <= 0f) {
                 MineGuiCore.LOGGER.error("Unable to resolve positive font size for {}; skipping load", variant.key());
@@ -177,9 +208,27 @@ public final class FontLibrary {
             }
             float normalizedSize = normalizeSize(sanitizedSize);
             FontVariant normalizedVariant = new FontVariant(variant.key(), normalizedSize);
-            ImFont font = descriptor.load(this, normalizedVariant, normalizedSize);
+            if (ImGui.getIO().getFonts().isBuilt()) {
+                if (baseKey == null && !runtimeFailures.contains(normalizedVariant)) {
+                    if (runtimeRequests.add(normalizedVariant)) {
+                        MineGuiCore.LOGGER.info("Queued font {} at {}px for a background atlas rebuild", variant.key(), normalizedSize);
+                    }
+                } else if (warnedPostBuild.putIfAbsent(variant.key(), Boolean.TRUE) == null) {
+                    MineGuiCore.LOGGER.warn("Skipping font load for {} at runtime; register fonts during mod startup before MineGui initializes.", variant.key());
+                }
+                return null;
+            }
+            BakedVariant bakedVariant = baseKey == null ? new BakedVariant(descriptor, normalizedSize) : null;
+            ImFont font = bakedVariant != null ? bakedFonts.get(bakedVariant) : null;
+            if (font == null) {
+                font = descriptor.load(this, ImGui.getIO().getFonts(), normalizedSize);
+                if (font != null && bakedVariant != null) {
+                    bakedFonts.put(bakedVariant, font);
+                }
+            }
             if (font != null) {
-                loadedFonts.put(normalizedVariant, font);
+                putLoadedFont(normalizedVariant, font);
+                loadOrder.add(normalizedVariant);
             }
             return font;
         } finally {
@@ -188,17 +237,20 @@ public final class FontLibrary {
     }
 
     public void clear() {
-        loadedFonts.clear();
+        clearLoadedFonts();
         fontDescriptors.clear();
         warnedPostBuild.clear();
         mergeParents.clear();
-        fontData.clear();
+        sourceData.clear();
+        bakedFonts.clear();
+        resetRuntimeAtlas();
     }
 
     public void resetRuntime() {
-        loadedFonts.clear();
+        clearLoadedFonts();
         warnedPostBuild.clear();
-        fontData.clear();
+        bakedFonts.clear();
+        resetRuntimeAtlas();
     }
 
     public void lockRegistration() {
@@ -214,19 +266,259 @@ public final class FontLibrary {
         }
     }
 
-    private ImFont findCachedFont(ResourceId key, float size) {
-        FontVariant direct = new FontVariant(key, size);
-        ImFont cached = loadedFonts.get(direct);
-        if (cached != null) {
-            return cached;
+    public ImFont addBuiltinDefaultFont(ImFontAtlas atlas) {
+        ImFontConfig config = new ImFontConfig();
+        try {
+            config.setGlyphRanges(atlas.getGlyphRangesCyrillic());
+            config.setPixelSnapH(true);
+            return atlas.addFontDefault(config);
+        } finally {
+            config.destroy();
+        }
+    }
+
+    public void requestAtlasRebuild() {
+        atlasRebuildRequested = true;
+    }
+
+    public boolean isGlyphMissing(int codePoint) {
+        if (!RenderSystem.isOnRenderThreadOrInit() || ImGui.getCurrentContext().ptr == 0L || loadedFonts.isEmpty()) {
+            return true;
+        }
+        for (ImFont font : loadedFonts.values()) {
+            if (font.findGlyphNoFallback(codePoint).ptr != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void prepareRuntimeAtlas() {
+        if (runtimeBuild != null) {
+            return;
+        }
+        if (GlyphUsage.getInstance().pollExpansion()) {
+            atlasRebuildRequested = true;
+        }
+        if (runtimeRequests.isEmpty() && !atlasRebuildRequested) {
+            return;
+        }
+        atlasRebuildRequested = false;
+        List<FontVariant> variants = new ArrayList<>(loadOrder);
+        for (FontVariant request : runtimeRequests) {
+            if (variants.contains(request)) {
+                continue;
+            }
+            variants.add(request);
+            addMergedVariants(variants, request);
+        }
+        long mainContext = ImGui.getCurrentContext().ptr;
+        long scratchContext = ImGui.createContext().ptr;
+        ImGui.setCurrentContext(new ImGuiContext(scratchContext));
+        ImGui.getIO().setIniFilename(null);
+        ImFontAtlas atlas = new ImFontAtlas(ImGui.getIO().getFonts().ptr);
+        ImGui.setCurrentContext(new ImGuiContext(mainContext));
+        RuntimeAtlas populated = populateRuntimeAtlas(atlas, variants);
+        CompletableFuture<Boolean> baked = CompletableFuture.supplyAsync(() -> bakeRuntimeAtlas(atlas), ATLAS_EXECUTOR);
+        runtimeBuild = new RuntimeAtlasBuild(scratchContext, atlas, List.copyOf(variants), populated, baked);
+    }
+
+    public boolean swapRuntimeAtlas() {
+        RuntimeAtlasBuild build = runtimeBuild;
+        if (build == null || !build.baked().isDone()) {
+            return false;
+        }
+        runtimeBuild = null;
+        RuntimeAtlas built = awaitRuntimeAtlas(build) ? build.fonts() : null;
+        List<FontVariant> requested = new ArrayList<>();
+        for (FontVariant variant : build.variants()) {
+            if (runtimeRequests.remove(variant)) {
+                requested.add(variant);
+            }
+        }
+        if (built == null) {
+            runtimeFailures.addAll(requested);
+            MineGuiCore.LOGGER.error("Background font atlas rebuild failed; keeping the current atlas");
+            ImGui.destroyContext(new ImGuiContext(build.contextPtr()));
+            return false;
+        }
+        long mainContext = ImGui.getCurrentContext().ptr;
+        long previousAtlas = ImGui.getIO().getFonts().ptr;
+        ImGui.getIO().setFonts(build.atlas());
+        ImGui.setCurrentContext(new ImGuiContext(build.contextPtr()));
+        ImGui.getIO().setFonts(new ImFontAtlas(previousAtlas));
+        ImGui.setCurrentContext(new ImGuiContext(mainContext));
+        remapLoadedFonts(built);
+        loadOrder.clear();
+        for (FontVariant variant : build.variants()) {
+            if (built.fonts().containsKey(variant)) {
+                loadOrder.add(variant);
+            }
+        }
+        ImFont defaultFont = ensureFont(DEFAULT_FONT_KEY, null);
+        ImGui.getIO().setFontDefault(defaultFont != null ? defaultFont : built.builtinDefault());
+        releaseRetiredAtlas();
+        retiredAtlasContext = build.contextPtr();
+        MineGuiCore.LOGGER.info("Swapped in rebuilt font atlas with {} font variants", built.fonts().size());
+        return true;
+    }
+
+    public void releaseRetiredAtlas() {
+        long context = retiredAtlasContext;
+        if (context == 0L) {
+            return;
+        }
+        retiredAtlasContext = 0L;
+        ImGui.destroyContext(new ImGuiContext(context));
+        MineGuiCore.LOGGER.info("Released retired font atlas");
+    }
+
+    public void discardRuntimeAtlas() {
+        RuntimeAtlasBuild build = runtimeBuild;
+        if (build != null) {
+            runtimeBuild = null;
+            awaitRuntimeAtlas(build);
+            ImGui.destroyContext(new ImGuiContext(build.contextPtr()));
+        }
+        releaseRetiredAtlas();
+    }
+
+    private void remapLoadedFonts(RuntimeAtlas built) {
+        Map<FontVariant, ImFont> handles = new HashMap<>();
+        Map<Long, ImFont> handlesByFont = new HashMap<>();
+        for (Map.Entry<FontVariant, ImFont> entry : built.fonts().entrySet()) {
+            ImFont font = entry.getValue();
+            ImFont handle = loadedFonts.get(entry.getKey());
+            if (handle == null) {
+                handle = handlesByFont.getOrDefault(font.ptr, font);
+            }
+            handlesByFont.putIfAbsent(font.ptr, handle);
+            handle.ptr = font.ptr;
+            handles.put(entry.getKey(), handle);
         }
         for (Map.Entry<FontVariant, ImFont> entry : loadedFonts.entrySet()) {
-            FontVariant variant = entry.getKey();
-            if (variant.key.equals(key) && Math.abs(variant.size - size) < 0.05f) {
-                return entry.getValue();
+            if (!handles.containsKey(entry.getKey())) {
+                entry.getValue().ptr = built.builtinDefault().ptr;
+            }
+        }
+        clearLoadedFonts();
+        handles.forEach(this::putLoadedFont);
+        bakedFonts.clear();
+        built.bakedFonts().forEach((variant, font) -> bakedFonts.put(variant, handlesByFont.getOrDefault(font.ptr, font)));
+    }
+
+    private void resetRuntimeAtlas() {
+        discardRuntimeAtlas();
+        loadOrder.clear();
+        runtimeRequests.clear();
+        runtimeFailures.clear();
+        atlasRebuildRequested = false;
+    }
+
+    private void addMergedVariants(List<FontVariant> variants, FontVariant base) {
+        FontDescriptor baseDescriptor = fontDescriptors.get(base.key());
+        if (baseDescriptor == null || baseDescriptor.size() <= 0f) {
+            return;
+        }
+        float scale = base.size() / baseDescriptor.size();
+        for (Map.Entry<ResourceId, ResourceId> entry : mergeParents.entrySet()) {
+            FontDescriptor descriptor = fontDescriptors.get(entry.getKey());
+            if (!entry.getValue().equals(base.key()) || descriptor == null) {
+                continue;
+            }
+            FontVariant merged = new FontVariant(entry.getKey(), normalizeSize(sanitizeRequestedSize(descriptor.size() * scale, descriptor.size())));
+            if (!variants.contains(merged)) {
+                variants.add(merged);
+            }
+        }
+    }
+
+    private RuntimeAtlas populateRuntimeAtlas(ImFontAtlas atlas, List<FontVariant> variants) {
+        buildingAtlas.set(atlas);
+        try {
+            ImFont builtinDefault = addBuiltinDefaultFont(atlas);
+            Map<FontVariant, ImFont> fonts = new HashMap<>();
+            Map<BakedVariant, ImFont> baked = new HashMap<>();
+            for (FontVariant variant : variants) {
+                FontDescriptor descriptor = fontDescriptors.get(variant.key());
+                if (descriptor == null) {
+                    continue;
+                }
+                BakedVariant bakedVariant = mergeParents.containsKey(variant.key()) ? null : new BakedVariant(descriptor, variant.size());
+                ImFont font = bakedVariant != null ? baked.get(bakedVariant) : null;
+                if (font == null) {
+                    font = descriptor.load(this, atlas, variant.size());
+                    if (font != null && bakedVariant != null) {
+                        baked.put(bakedVariant, font);
+                    }
+                }
+                if (font != null) {
+                    fonts.put(variant, font);
+                }
             }
+            return new RuntimeAtlas(fonts, baked, builtinDefault);
+        } finally {
+            buildingAtlas.remove();
+        }
+    }
+
+    private static boolean bakeRuntimeAtlas(ImFontAtlas atlas) {
+        if (!atlas.build()) {
+            return false;
+        }
+        atlas.getTexDataAsRGBA32(new ImInt(), new ImInt());
+        return true;
+    }
+
+    private boolean awaitRuntimeAtlas(RuntimeAtlasBuild build) {
+        try {
+            return build.baked().join();
+        } catch (CompletionException | CancellationException e) {
+            MineGuiCore.LOGGER.error("Background font atlas rebuild threw", e);
+            return false;
+        }
+    }
+
+    ImFontAtlas targetAtlas() {
+        ImFontAtlas atlas = buildingAtlas.get();
+        return atlas != null ? atlas : ImGui.getIO().getFonts();
+    }
+
+    private CompletableFuture<byte[]> prefetch(FontSource source) {
+        return sourceData.computeIfAbsent(source, key -> CompletableFuture.supplyAsync(key::resolve, PREFETCH_EXECUTOR));
+    }
+
+    private byte[] resolveSource(FontSource source) {
+        CompletableFuture<byte[]> future = prefetch(source);
+        byte[] bytes;
+        try {
+            bytes = future.join();
+        } catch (CompletionException | CancellationException e) {
+            MineGuiCore.LOGGER.error("Font source failed to resolve", e);
+            bytes = null;
         }
-        return null;
+        if (bytes == null || bytes.length == 0) {
+            sourceData.remove(source, future);
+            return null;
+        }
+        return bytes;
+    }
+
+    private ImFont findCachedFont(ResourceId key, float size) {
+        FontSizeIndex index = sizeIndex.get(key);
+        return index != null ? index.find(size, SIZE_TOLERANCE) : null;
+    }
+
+    private void putLoadedFont(FontVariant variant, ImFont font) {
+        loadedFonts.put(variant, font);
+        sizeIndex.compute(variant.key(), (key, index) -> (index != null ? index : FontSizeIndex.EMPTY).with(variant.size(), font));
+        fontGeneration.incrementAndGet();
+    }
+
+    private void clearLoadedFonts() {
+        loadedFonts.clear();
+        sizeIndex.clear();
+        fontGeneration.incrementAndGet();
     }
 
     private float sanitizeRequestedSize(float requested, float fallback) {
@@ -253,38 +545,11 @@ public final class FontLibrary {
     @FunctionalInterface
     public interface FontSource {
         static FontSource asset(String relativePath) {
-            return () -> {
-                String formatted = "assets/" + MineGuiCore.ID + "/fonts/" + relativePath;
-                try (InputStream stream = MineGuiCore.class.getClassLoader().getResourceAsStream(formatted)) {
-                    if (stream == null) {
-                        MineGuiCore.LOGGER.warn("Font asset not found: {}", formatted);
-                        return null;
-                    }
-                    return stream.readAllBytes();
-                } catch (IOException e) {
-                    MineGuiCore.LOGGER.error("Failed to load font asset {}", formatted, e);
-                    return null;
-                }
-            };
+            return new AssetFontSource(relativePath);
         }
 
         static FontSource external(Path path) {
-            return () -> {
-                if (path == null) {
-                    return null;
-                }
-                Path resolved = FabricLoader.getInstance().getGameDir().resolve(path);
-                if (!Files.exists(resolved)) {
-                    MineGuiCore.LOGGER.warn("Font file not found: {}", resolved);
-                    return null;
-                }
-                try {
-                    return Files.readAllBytes(resolved);
-                } catch (IOException e) {
-                    MineGuiCore.LOGGER.error("Failed to read font file {}", resolved, e);
-                    return null;
-                }
-            };
+            return new ExternalFontSource(path);
         }
 
         byte[] resolve();
@@ -295,16 +560,11 @@ public final class FontLibrary {
             Objects.requireNonNull(source, "source");
         }
 
-        ImFont load(FontLibrary library, FontVariant variant, float targetSize) {
-            ImGuiIO io = ImGui.getIO();
-            byte[] fontBytes = library.fontData.get(variant);
+        ImFont load(FontLibrary library, ImFontAtlas atlas, float targetSize) {
+            byte[] fontBytes = library.resolveSource(source);
             if (fontBytes == null) {
-                fontBytes = source.resolve();
-                if (fontBytes == null || fontBytes.length == 0) {
-                    MineGuiCore.LOGGER.warn("Font source returned no data");
-                    return null;
-                }
-                library.fontData.put(variant, fontBytes);
+                MineGuiCore.LOGGER.warn("Font source returned no data");
+                return null;
             }
             ImFontConfig config = new ImFontConfig();
             try {
@@ -312,7 +572,7 @@ public final class FontLibrary {
                     configFactory.configure(config);
                 }
                 config.setFontDataOwnedByAtlas(false);
-                return io.getFonts().addFontFromMemoryTTF(fontBytes, targetSize, config);
+                return atlas.addFontFromMemoryTTF(fontBytes, targetSize, config);
             } finally {
                 config.destroy();
             }
@@ -321,4 +581,50 @@ public final class FontLibrary {
 
     private record FontVariant(ResourceId key, float size) {
     }
+
+    private record AssetFontSource(String relativePath) implements FontSource {
+        @Override
+        public byte[] resolve() {
+            String formatted = "assets/" + MineGuiCore.ID + "/fonts/" + relativePath;
+            try (InputStream stream = MineGuiCore.class.getClassLoader().getResourceAsStream(formatted)) {
+                if (stream == null) {
+                    MineGuiCore.LOGGER.warn("Font asset not found: {}", formatted);
+                    return null;
+                }
+                return stream.readAllBytes();
+            } catch (IOException e) {
+                MineGuiCore.LOGGER.error("Failed to load font asset {}", formatted, e);
+                return null;
+            }
+        }
+    }
+
+    private record ExternalFontSource(Path path) implements FontSource {
+        @Override
+        public byte[] resolve() {
+            if (path == null) {
+                return null;
+            }
+            Path resolved = FabricLoader.getInstance().getGameDir().resolve(path);
+            if (!Files.exists(resolved)) {
+                MineGuiCore.LOGGER.warn("Font file not found: {}", resolved);
+                return null;
+            }
+            try {
+                return Files.readAllBytes(resolved);
+            } catch (IOException e) {
+                MineGuiCore.LOGGER.error("Failed to read font file {}", resolved, e);
+                return null;
+            }
+        }
+    }
+
+    private record BakedVariant(FontDescriptor descriptor, float size) {
+    }
+
+    private record RuntimeAtlas(Map<FontVariant, ImFont> fonts, Map<BakedVariant, ImFont> bakedFonts, ImFont builtinDefault) {
+    }
+
+    private record RuntimeAtlasBuild(long contextPtr, ImFontAtlas atlas, List<FontVariant> variants, RuntimeAtlas fonts, CompletableFuture<Boolean> baked) {
+    }
 }
@@ -0,0 +1,54 @@
+package tytoo.minegui.style;
+
+import imgui.ImFont;
+
+import java.util.Arrays;
+
+final class FontSizeIndex {
+    static final FontSizeIndex EMPTY = new FontSizeIndex(new float[0], new ImFont[0]);
+
+    private final float[] sizes;
+    private final ImFont[] fonts;
+
+    private FontSizeIndex(float[] sizes, ImFont[] fonts) {
+        this.sizes = sizes;
+        this.fonts = fonts;
+    }
+
+    ImFont find(float size, float tolerance) {
+        int index = Arrays.binarySearch(sizes, size);
+        if (index >= 0) {
+            return fonts[index];
+        }
+        int insertion = -index - 1;
+        int best = -1;
+        float bestDistance = tolerance;
+        if (insertion < sizes.length && sizes[insertion] - size < bestDistance) {
+            best = insertion;
+            bestDistance = sizes[insertion] - size;
+        }
+        if (insertion > 0 && size - sizes[insertion - 1] < bestDistance) {
+            best = insertion - 1;
+        }
+        return best >= 0 ? fonts[best] : null;
+    }
+
+    FontSizeIndex with(float size, ImFont font) {
+        int index = Arrays.binarySearch(sizes, size);
+        if (index >= 0) {
+            ImFont[] updatedFonts = fonts.clone();
+            updatedFonts[index] = font;
+            return new FontSizeIndex(sizes, updatedFonts);
+        }
+        int insertion = -index - 1;
+        float[] updatedSizes = new float[sizes.length + 1];
+        ImFont[] updatedFonts = new ImFont[fonts.length + 1];
+        System.arraycopy(sizes, 0, updatedSizes, 0, insertion);
+        System.arraycopy(fonts, 0, updatedFonts, 0, insertion);
+        updatedSizes[insertion] = size;
+        updatedFonts[insertion] = font;
+        System.arraycopy(sizes, insertion, updatedSizes, insertion + 1, sizes.length - insertion);
+        System.arraycopy(fonts, insertion, updatedFonts, insertion + 1, fonts.length - insertion);
+        return new FontSizeIndex(updatedSizes, updatedFonts);
+    }
+}
@@ -1,6 +1,7 @@
 package tytoo.minegui.style;
 
 import imgui.ImFont;
+import imgui.ImFontAtlas;
 import imgui.ImFontConfig;
 import imgui.ImGuiIO;
 import tytoo.minegui.MineGuiCore;
@@ -47,14 +48,17 @@ public final class Fonts {
     public static void registerDefaults(ImGuiIO io) {
         Objects.requireNonNull(io, "io");
         FontLibrary library = FontLibrary.getInstance();
+        FontLibrary.GlyphRangeSupplier cyrillic = GlyphUsage.getInstance().subset(ImFontAtlas::getGlyphRangesCyrillic);
         Consumer<ImFontConfig> configureCyrillic = config -> {
             config.setPixelSnapH(true);
-            config.setGlyphRanges(io.getFonts().getGlyphRangesCyrillic());
+            config.setOversampleH(1);
+            config.setGlyphRanges(cyrillic.supply(library.targetAtlas()));
         };
-        registerFont(library, library.getDefaultFontKey(), "proxima.ttf", PROXIMA_SIZE, configureCyrillic);
-        registerFont(library, PROXIMA_KEY, "proxima.ttf", PROXIMA_SIZE, configureCyrillic);
-        registerFont(library, JETBRAINS_MONO_KEY, "jetbrains-mono.ttf", JETBRAINS_MONO_SIZE, configureCyrillic);
-        registerFont(library, NOTO_SANS_KEY, "notosans.ttf", NOTO_SANS_SIZE, configureCyrillic);
+        FontLibrary.FontDescriptor proxima = descriptor("proxima.ttf", PROXIMA_SIZE, configureCyrillic);
+        library.registerFont(library.getDefaultFontKey(), proxima);
+        library.registerFont(PROXIMA_KEY, proxima);
+        library.registerFont(JETBRAINS_MONO_KEY, descriptor("jetbrains-mono.ttf", JETBRAINS_MONO_SIZE, configureCyrillic));
+        library.registerFont(NOTO_SANS_KEY, descriptor("notosans.ttf", NOTO_SANS_SIZE, configureCyrillic));
     }
 
     public static ImFont ensure(ResourceId key) {
@@ -67,19 +71,15 @@ public final class Fonts {
         return ensure(JETBRAINS_MONO_KEY);
     }
 
-    private static void registerFont(FontLibrary library, ResourceId key, String assetPath, float size, Consumer<ImFontConfig> configurer) {
-        Objects.requireNonNull(library, "library");
-        library.registerFont(
-                key,
-                new FontLibrary.FontDescriptor(
-                        FontLibrary.FontSource.asset(assetPath),
-                        size,
-                        config -> {
-                            if (configurer != null) {
-                                configurer.accept(config);
-                            }
-                        }
-                )
+    private static FontLibrary.FontDescriptor descriptor(String assetPath, float size, Consumer<ImFontConfig> configurer) {
+        return new FontLibrary.FontDescriptor(
+                FontLibrary.FontSource.asset(assetPath),
+                size,
+                config -> {
+                    if (configurer != null) {
+                        configurer.accept(config);
+                    }
+                }
         );
     }
 
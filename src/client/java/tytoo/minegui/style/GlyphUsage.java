@@ -0,0 +1,294 @@
+package tytoo.minegui.style;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.Getter;
+import lombok.Setter;
+import net.fabricmc.loader.api.FabricLoader;
+import tytoo.minegui.MineGuiCore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class GlyphUsage {
+    private static final GlyphUsage INSTANCE = new GlyphUsage();
+    private static final String FILE_NAME = "glyphs.bin";
+    private static final int MAGIC = 0x4D474759;
+    private static final int VERSION = 1;
+    private static final int MAX_CODEPOINT = 0xFFFF;
+    private static final int FIRST_PRINTABLE = 0x20;
+    private static final int LAST_PRINTABLE = 0x7E;
+    private static final int EXPANSION_BLOCK_SIZE = 128;
+    private static final long EXPANSION_QUIET_NANOS = 1_000_000_000L;
+    private static final long EXPANSION_MAX_DELAY_NANOS = 5_000_000_000L;
+
+    private final AtomicLongArray used = new AtomicLongArray((MAX_CODEPOINT + 1) >>> 6);
+    private final AtomicLongArray expandable = new AtomicLongArray((MAX_CODEPOINT + 1) >>> 6);
+    private final Path path = FabricLoader.getInstance().getConfigDir().resolve(MineGuiCore.ID).resolve(FILE_NAME);
+    @Getter
+    @Setter
+    private volatile boolean subsettingEnabled;
+    private volatile boolean loaded;
+    private volatile boolean dirty;
+    private volatile boolean expansionPending;
+    private int recordedCount;
+    private long expansionFirstNanos;
+    private long expansionLastNanos;
+
+    private GlyphUsage() {
+    }
+
+    public static GlyphUsage getInstance() {
+        return INSTANCE;
+    }
+
+    public void record(CharSequence text) {
+        if (!subsettingEnabled || text == null) {
+            return;
+        }
+        for (int index = 0; index < text.length(); index++) {
+            recordCodePoint(text.charAt(index));
+        }
+    }
+
+    public void recordCodePoint(int codePoint) {
+        if (!subsettingEnabled || codePoint < 0 || codePoint > MAX_CODEPOINT) {
+            return;
+        }
+        ensureLoaded();
+        if (set(used, codePoint)) {
+            dirty = true;
+        }
+        if (!contains(expandable, codePoint) || !FontLibrary.getInstance().isGlyphMissing(codePoint)) {
+            return;
+        }
+        expandBlock(codePoint);
+        scheduleExpansion();
+    }
+
+    public boolean pollExpansion() {
+        if (!expansionPending) {
+            return false;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now - expansionLastNanos < EXPANSION_QUIET_NANOS && now - expansionFirstNanos < EXPANSION_MAX_DELAY_NANOS) {
+                return false;
+            }
+            expansionPending = false;
+            return true;
+        }
+    }
+
+    public boolean recordLangResource(String resourcePath) {
+        if (!subsettingEnabled || resourcePath == null) {
+            return false;
+        }
+        try (InputStream stream = MineGuiCore.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (stream == null) {
+                MineGuiCore.LOGGER.warn("Lang resource not found for glyph usage: {}", resourcePath);
+                return false;
+            }
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                JsonElement root = JsonParser.parseReader(reader);
+                if (!root.isJsonObject()) {
+                    return false;
+                }
+                recordStrings(root.getAsJsonObject());
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            MineGuiCore.LOGGER.error("Failed to read lang resource {} for glyph usage", resourcePath, e);
+            return false;
+        }
+    }
+
+    public FontLibrary.GlyphRangeSupplier subset(FontLibrary.GlyphRangeSupplier full) {
+        return atlas -> {
+            short[] ranges = full.supply(atlas);
+            if (!subsettingEnabled || ranges == null || ranges.length < 2) {
+                return ranges;
+            }
+            ensureLoaded();
+            synchronized (this) {
+                if (recordedCount == 0 && !dirty) {
+                    return ranges;
+                }
+            }
+            return intersect(ranges);
+        };
+    }
+
+    public void save() {
+        if (!loaded || !dirty) {
+            return;
+        }
+        dirty = false;
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temp))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                int start = -1;
+                int rangeCount = 0;
+                int[] ranges = new int[32];
+                for (int codePoint = 0; codePoint <= MAX_CODEPOINT + 1; codePoint++) {
+                    boolean present = codePoint <= MAX_CODEPOINT && contains(used, codePoint);
+                    if (present && start < 0) {
+                        start = codePoint;
+                    } else if (!present && start >= 0) {
+                        if (rangeCount * 2 + 2 > ranges.length) {
+                            ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                        }
+                        ranges[rangeCount * 2] = start;
+                        ranges[rangeCount * 2 + 1] = codePoint - 1;
+                        rangeCount++;
+                        start = -1;
+                    }
+                }
+                output.writeInt(rangeCount);
+                for (int index = 0; index < rangeCount * 2; index++) {
+                    output.writeInt(ranges[index]);
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            dirty = true;
+            MineGuiCore.LOGGER.error("Failed to save glyph usage to {}", path, e);
+        }
+    }
+
+    private void expandBlock(int codePoint) {
+        int firstWord = (codePoint & -EXPANSION_BLOCK_SIZE) >>> 6;
+        for (int word = firstWord; word < firstWord + EXPANSION_BLOCK_SIZE / Long.SIZE; word++) {
+            used.set(word, -1L);
+            expandable.set(word, 0L);
+        }
+        dirty = true;
+    }
+
+    private synchronized void scheduleExpansion() {
+        long now = System.nanoTime();
+        if (!expansionPending) {
+            expansionFirstNanos = now;
+        }
+        expansionLastNanos = now;
+        expansionPending = true;
+    }
+
+    private void recordStrings(JsonObject object) {
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                record(value.getAsString());
+            } else if (value.isJsonObject()) {
+                recordStrings(value.getAsJsonObject());
+            }
+        }
+    }
+
+    private short[] intersect(short[] ranges) {
+        short[] result = new short[16];
+        int length = 0;
+        for (int index = 0; index + 1 < ranges.length && ranges[index] != 0; index += 2) {
+            int start = ranges[index] & 0xFFFF;
+            int end = ranges[index + 1] & 0xFFFF;
+            int runStart = -1;
+            for (int codePoint = start; codePoint <= end + 1; codePoint++) {
+                boolean keep = codePoint <= end && (isPrintableAscii(codePoint) || contains(used, codePoint));
+                if (codePoint <= end) {
+                    if (keep) {
+                        clear(expandable, codePoint);
+                    } else {
+                        set(expandable, codePoint);
+                    }
+                }
+                if (keep && runStart < 0) {
+                    runStart = codePoint;
+                } else if (!keep && runStart >= 0) {
+                    if (length + 3 > result.length) {
+                        result = Arrays.copyOf(result, result.length * 2);
+                    }
+                    result[length++] = (short) runStart;
+                    result[length++] = (short) (codePoint - 1);
+                    runStart = -1;
+                }
+            }
+        }
+        if (length == 0) {
+            return new short[]{ranges[0], ranges[0], 0};
+        }
+        short[] trimmed = Arrays.copyOf(result, length + 1);
+        trimmed[length] = 0;
+        return trimmed;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            if (Files.exists(path)) {
+                try (DataInputStream input = new DataInputStream(Files.newInputStream(path))) {
+                    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                        throw new IOException("Unrecognized glyph usage header");
+                    }
+                    int rangeCount = input.readInt();
+                    for (int range = 0; range < rangeCount; range++) {
+                        int start = Math.max(0, input.readInt());
+                        int end = Math.min(MAX_CODEPOINT, input.readInt());
+                        for (int codePoint = start; codePoint <= end; codePoint++) {
+                            if (set(used, codePoint)) {
+                                recordedCount++;
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    MineGuiCore.LOGGER.error("Failed to load glyph usage from {}; starting with full glyph ranges", path, e);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private static boolean isPrintableAscii(int codePoint) {
+        return codePoint >= FIRST_PRINTABLE && codePoint <= LAST_PRINTABLE;
+    }
+
+    private static boolean contains(AtomicLongArray bits, int codePoint) {
+        return (bits.get(codePoint >>> 6) & (1L << codePoint)) != 0L;
+    }
+
+    private static boolean set(AtomicLongArray bits, int codePoint) {
+        int word = codePoint >>> 6;
+        long mask = 1L << codePoint;
+        long previous = bits.getAndUpdate(word, value -> value | mask);
+        return (previous & mask) == 0L;
+    }
+
+    private static void clear(AtomicLongArray bits, int codePoint) {
+        long mask = 1L << codePoint;
+        bits.getAndUpdate(codePoint >>> 6, value -> value & ~mask);
+    }
+}
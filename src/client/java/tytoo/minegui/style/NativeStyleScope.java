@@ -0,0 +1,100 @@
+package tytoo.minegui.style;
+
+import imgui.ImFont;
+import imgui.ImGui;
+import imgui.ImGuiStyle;
+
+final class NativeStyleScope {
+    private static final ThreadLocal<PackedStyle> TRANSLATION_BUFFER = ThreadLocal.withInitial(PackedStyle::new);
+
+    private final int styleVarCount;
+    private final int colorCount;
+    private final boolean fontPushed;
+    private final long touchedFields;
+    private final long touchedColors;
+    private final PackedStyle restore;
+
+    private NativeStyleScope(int styleVarCount, int colorCount, boolean fontPushed, long touchedFields, long touchedColors, PackedStyle restore) {
+        this.styleVarCount = styleVarCount;
+        this.colorCount = colorCount;
+        this.fontPushed = fontPushed;
+        this.touchedFields = touchedFields;
+        this.touchedColors = touchedColors;
+        this.restore = restore;
+    }
+
+    static NativeStyleScope push(StyleDelta delta, ImFont font) {
+        PackedStyle values = TRANSLATION_BUFFER.get();
+        values.clear();
+        delta.writeTo(values);
+        ImGuiStyle style = null;
+        PackedStyle restore = null;
+        int styleVarCount = 0;
+        long pending = values.fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            int styleVar = StyleField.styleVar(field);
+            int slot = StyleField.slot(field);
+            if (styleVar >= 0) {
+                if (StyleField.kind(field) == StyleField.KIND_VEC2) {
+                    ImGui.pushStyleVar(styleVar, values.floats[slot], values.floats[slot + 1]);
+                } else {
+                    ImGui.pushStyleVar(styleVar, values.floats[slot]);
+                }
+                styleVarCount++;
+                continue;
+            }
+            if (style == null) {
+                style = ImGui.getStyle();
+                restore = new PackedStyle();
+            }
+            StyleField.read(style, field, restore.floats, restore.ints);
+            restore.fieldMask |= 1L << field;
+            StyleField.write(style, field, values.floats, values.ints);
+        }
+        int colorCount = 0;
+        long pendingColors = values.colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            ImGui.pushStyleColor(index, values.colors[index]);
+            colorCount++;
+        }
+        boolean fontPushed = false;
+        if (font != null) {
+            ImGui.pushFont(font);
+            fontPushed = true;
+        }
+        return new NativeStyleScope(styleVarCount, colorCount, fontPushed, values.fieldMask, values.colorMask, restore);
+    }
+
+    long touchedFields() {
+        return touchedFields;
+    }
+
+    long touchedColors() {
+        return touchedColors;
+    }
+
+    void pop() {
+        if (fontPushed) {
+            ImGui.popFont();
+        }
+        if (colorCount > 0) {
+            ImGui.popStyleColor(colorCount);
+        }
+        if (styleVarCount > 0) {
+            ImGui.popStyleVar(styleVarCount);
+        }
+        if (restore != null) {
+            ImGuiStyle style = ImGui.getStyle();
+            long pending = restore.fieldMask;
+            while (pending != 0L) {
+                int field = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                StyleField.write(style, field, restore.floats, restore.ints);
+            }
+        }
+    }
+}
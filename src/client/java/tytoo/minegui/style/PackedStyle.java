@@ -0,0 +1,244 @@
+package tytoo.minegui.style;
+
+import imgui.ImGuiStyle;
+import imgui.flag.ImGuiCol;
+
+final class PackedStyle {
+    final float[] floats = new float[StyleField.FLOAT_SLOTS];
+    final int[] ints = new int[StyleField.INT_SLOTS];
+    final int[] colors = new int[ImGuiCol.COUNT];
+    long fieldMask;
+    long colorMask;
+
+    static boolean isColorIndex(int index) {
+        return index >= 0 && index < ImGuiCol.COUNT;
+    }
+
+    void clear() {
+        fieldMask = 0L;
+        colorMask = 0L;
+    }
+
+    boolean isEmpty() {
+        return fieldMask == 0L && colorMask == 0L;
+    }
+
+    int entryCount() {
+        return Long.bitCount(fieldMask) + Long.bitCount(colorMask);
+    }
+
+    void setFloat(int field, float value) {
+        floats[StyleField.slot(field)] = value;
+        fieldMask |= 1L << field;
+    }
+
+    void setVec2(int field, float x, float y) {
+        int slot = StyleField.slot(field);
+        floats[slot] = x;
+        floats[slot + 1] = y;
+        fieldMask |= 1L << field;
+    }
+
+    void setVec2(int field, Vec2 value) {
+        setVec2(field, value.x(), value.y());
+    }
+
+    void setInt(int field, int value) {
+        ints[StyleField.slot(field)] = value;
+        fieldMask |= 1L << field;
+    }
+
+    void setBool(int field, boolean value) {
+        setInt(field, value ? 1 : 0);
+    }
+
+    void setColor(int index, int color) {
+        if (!isColorIndex(index)) {
+            return;
+        }
+        colors[index] = color;
+        colorMask |= 1L << index;
+    }
+
+    float getFloat(int field) {
+        return floats[StyleField.slot(field)];
+    }
+
+    Vec2 getVec2(int field, Vec2 reuse) {
+        int slot = StyleField.slot(field);
+        float x = floats[slot];
+        float y = floats[slot + 1];
+        if (reuse != null && sameFloat(reuse.x(), x) && sameFloat(reuse.y(), y)) {
+            return reuse;
+        }
+        return Vec2.of(x, y);
+    }
+
+    int getInt(int field) {
+        return ints[StyleField.slot(field)];
+    }
+
+    boolean getBool(int field) {
+        return getInt(field) != 0;
+    }
+
+    void copyFrom(PackedStyle other) {
+        System.arraycopy(other.floats, 0, floats, 0, floats.length);
+        System.arraycopy(other.ints, 0, ints, 0, ints.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        fieldMask = other.fieldMask;
+        colorMask = other.colorMask;
+    }
+
+    void overlay(PackedStyle source) {
+        if (source.fieldMask == StyleField.ALL_FIELDS) {
+            System.arraycopy(source.floats, 0, floats, 0, floats.length);
+            System.arraycopy(source.ints, 0, ints, 0, ints.length);
+            fieldMask = StyleField.ALL_FIELDS;
+        } else {
+            long pending = source.fieldMask;
+            while (pending != 0L) {
+                int field = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                copyField(source, field);
+            }
+        }
+        long pendingColors = source.colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            colors[index] = source.colors[index];
+        }
+        colorMask |= source.colorMask;
+    }
+
+    void applyTo(ImGuiStyle style) {
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            StyleField.write(style, field, floats, ints);
+        }
+        long pendingColors = colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            style.setColor(index, colors[index]);
+        }
+    }
+
+    void invalidate(long fields, long colorEntries) {
+        fieldMask &= ~fields;
+        colorMask &= ~colorEntries;
+    }
+
+    int writeChanges(ImGuiStyle style, PackedStyle shadow) {
+        int written = 0;
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            if ((shadow.fieldMask & (1L << field)) != 0L && sameField(shadow, field)) {
+                continue;
+            }
+            StyleField.write(style, field, floats, ints);
+            shadow.copyField(this, field);
+            written++;
+        }
+        long pendingColors = colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            long bit = 1L << index;
+            int color = colors[index];
+            if ((shadow.colorMask & bit) != 0L && shadow.colors[index] == color) {
+                continue;
+            }
+            style.setColor(index, color);
+            shadow.colors[index] = color;
+            shadow.colorMask |= bit;
+            written++;
+        }
+        return written;
+    }
+
+    long contentHash() {
+        long hash = mix(fieldMask, colorMask);
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            int slot = StyleField.slot(field);
+            switch (StyleField.kind(field)) {
+                case StyleField.KIND_FLOAT -> hash = mix(hash, Float.floatToIntBits(floats[slot]));
+                case StyleField.KIND_VEC2 -> {
+                    hash = mix(hash, Float.floatToIntBits(floats[slot]));
+                    hash = mix(hash, Float.floatToIntBits(floats[slot + 1]));
+                }
+                default -> hash = mix(hash, ints[slot]);
+            }
+        }
+        long pendingColors = colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            hash = mix(hash, colors[index]);
+        }
+        return hash;
+    }
+
+    boolean sameContent(PackedStyle other) {
+        if (fieldMask != other.fieldMask || colorMask != other.colorMask) {
+            return false;
+        }
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            if (!sameField(other, field)) {
+                return false;
+            }
+        }
+        long pendingColors = colorMask;
+        while (pendingColors != 0L) {
+            int index = Long.numberOfTrailingZeros(pendingColors);
+            pendingColors &= pendingColors - 1L;
+            if (colors[index] != other.colors[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long mix(long hash, long value) {
+        long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    private boolean sameField(PackedStyle other, int field) {
+        int slot = StyleField.slot(field);
+        return switch (StyleField.kind(field)) {
+            case StyleField.KIND_FLOAT -> sameFloat(floats[slot], other.floats[slot]);
+            case StyleField.KIND_VEC2 -> sameFloat(floats[slot], other.floats[slot])
+                    && sameFloat(floats[slot + 1], other.floats[slot + 1]);
+            default -> ints[slot] == other.ints[slot];
+        };
+    }
+
+    private void copyField(PackedStyle source, int field) {
+        int slot = StyleField.slot(field);
+        switch (StyleField.kind(field)) {
+            case StyleField.KIND_FLOAT -> floats[slot] = source.floats[slot];
+            case StyleField.KIND_VEC2 -> {
+                floats[slot] = source.floats[slot];
+                floats[slot + 1] = source.floats[slot + 1];
+            }
+            default -> ints[slot] = source.ints[slot];
+        }
+        fieldMask |= 1L << field;
+    }
+
+    private static boolean sameFloat(float first, float second) {
+        return Float.floatToIntBits(first) == Float.floatToIntBits(second);
+    }
+}
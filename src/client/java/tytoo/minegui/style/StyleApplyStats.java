@@ -0,0 +1,11 @@
+package tytoo.minegui.style;
+
+public record StyleApplyStats(long applies, long writtenFields, long skippedFields) {
+    public static StyleApplyStats empty() {
+        return new StyleApplyStats(0L, 0L, 0L);
+    }
+
+    public long totalFields() {
+        return writtenFields + skippedFields;
+    }
+}
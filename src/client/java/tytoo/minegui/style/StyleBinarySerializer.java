@@ -0,0 +1,165 @@
+package tytoo.minegui.style;
+
+import imgui.flag.ImGuiCol;
+import tytoo.minegui.MineGuiCore;
+import tytoo.minegui.util.ResourceId;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+public final class StyleBinarySerializer {
+    public static final String FILE_EXTENSION = ".mgstyle";
+    private static final int MAGIC = 0x4D475342;
+    private static final int VERSION = 1;
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(512));
+
+    private StyleBinarySerializer() {
+    }
+
+    public static byte[] toBinary(String namespace, String viewId, ResourceId styleKey, StyleDescriptor descriptor) {
+        if (descriptor == null) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            DataOutputStream output = new DataOutputStream(buffer);
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            writeOptional(output, namespace != null && !namespace.isBlank() ? namespace : null);
+            writeOptional(output, viewId != null && !viewId.isBlank() ? viewId : null);
+            writeOptional(output, styleKey != null ? styleKey.toString() : null);
+            writeOptional(output, descriptor.getFontKey() != null ? descriptor.getFontKey().toString() : null);
+            Float fontSize = descriptor.getFontSize();
+            output.writeBoolean(fontSize != null);
+            if (fontSize != null) {
+                output.writeFloat(fontSize);
+            }
+            PackedStyle packed = descriptor.compiled();
+            output.writeLong(packed.fieldMask);
+            long pending = packed.fieldMask;
+            while (pending != 0L) {
+                int field = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                int slot = StyleField.slot(field);
+                if (StyleField.usesFloats(field)) {
+                    for (int offset = 0; offset < StyleField.width(field); offset++) {
+                        output.writeFloat(packed.floats[slot + offset]);
+                    }
+                } else {
+                    output.writeInt(packed.ints[slot]);
+                }
+            }
+            output.writeLong(packed.colorMask);
+            long pendingColors = packed.colorMask;
+            while (pendingColors != 0L) {
+                int index = Long.numberOfTrailingZeros(pendingColors);
+                pendingColors &= pendingColors - 1L;
+                output.writeInt(packed.colors[index]);
+            }
+            output.flush();
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to encode style for {} in {}", viewId, namespace, e);
+            return null;
+        }
+        byte[] bytes = buffer.toByteArray();
+        if (bytes.length > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return bytes;
+    }
+
+    public static Optional<Snapshot> fromBinary(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a MineGui style snapshot");
+            }
+            int version = input.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported style snapshot version " + version);
+            }
+            String namespace = readOptional(input);
+            String viewId = readOptional(input);
+            String styleKey = readOptional(input);
+            String fontKey = readOptional(input);
+            Float fontSize = input.readBoolean() ? input.readFloat() : null;
+            PackedStyle packed = new PackedStyle();
+            long fieldMask = input.readLong();
+            if (fieldMask != StyleField.ALL_FIELDS) {
+                throw new IOException("Incomplete style snapshot field mask");
+            }
+            long pending = fieldMask;
+            while (pending != 0L) {
+                int field = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                int slot = StyleField.slot(field);
+                if (StyleField.usesFloats(field)) {
+                    for (int offset = 0; offset < StyleField.width(field); offset++) {
+                        packed.floats[slot + offset] = input.readFloat();
+                    }
+                } else {
+                    packed.ints[slot] = input.readInt();
+                }
+            }
+            packed.fieldMask = fieldMask;
+            long colorMask = input.readLong();
+            if (ImGuiCol.COUNT < Long.SIZE && (colorMask >>> ImGuiCol.COUNT) != 0L) {
+                throw new IOException("Unknown color indices in style snapshot");
+            }
+            long pendingColors = colorMask;
+            while (pendingColors != 0L) {
+                int index = Long.numberOfTrailingZeros(pendingColors);
+                pendingColors &= pendingColors - 1L;
+                packed.colors[index] = input.readInt();
+            }
+            packed.colorMask = colorMask;
+            ColorPalette palette = ColorPalette.fromPacked(packed.colors, colorMask);
+            StyleDescriptor descriptor = StyleDescriptor.fromPacked(packed, null, palette, fontKey != null ? ResourceId.tryParse(fontKey) : null, fontSize);
+            StyleValidation.validateDescriptor(descriptor);
+            return Optional.of(new Snapshot(namespace, viewId, styleKey != null ? ResourceId.tryParse(styleKey) : null, descriptor));
+        } catch (IOException | IllegalArgumentException e) {
+            MineGuiCore.LOGGER.warn("Failed to decode binary style snapshot", e);
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<String> readViewId(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            if (input.readInt() != MAGIC || input.readUnsignedByte() != VERSION) {
+                return Optional.empty();
+            }
+            readOptional(input);
+            return Optional.ofNullable(readOptional(input));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeOptional(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readOptional(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    public record Snapshot(String namespace, String viewId, ResourceId styleKey, StyleDescriptor descriptor) {
+        public String toJson() {
+            return StyleJsonSerializer.toJson(namespace, viewId, styleKey, descriptor);
+        }
+    }
+}
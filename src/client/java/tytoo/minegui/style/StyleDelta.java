@@ -6,93 +6,43 @@ import tytoo.minegui.util.ResourceId;
 
 import java.util.Objects;
 
-@Getter
 public final class StyleDelta {
-    private final Float alpha;
-    private final Float disabledAlpha;
-    private final Vec2 windowPadding;
-    private final Float windowRounding;
-    private final Float windowBorderSize;
-    private final Vec2 windowMinSize;
-    private final Vec2 windowTitleAlign;
-    private final Integer windowMenuButtonPosition;
-    private final Float childRounding;
-    private final Float childBorderSize;
-    private final Float popupRounding;
-    private final Float popupBorderSize;
-    private final Vec2 framePadding;
-    private final Float frameRounding;
-    private final Float frameBorderSize;
-    private final Vec2 itemSpacing;
-    private final Vec2 itemInnerSpacing;
-    private final Vec2 cellPadding;
-    private final Vec2 touchExtraPadding;
-    private final Float indentSpacing;
-    private final Float columnsMinSpacing;
-    private final Float scrollbarSize;
-    private final Float scrollbarRounding;
-    private final Float grabMinSize;
-    private final Float grabRounding;
-    private final Float logSliderDeadzone;
-    private final Float tabRounding;
-    private final Float tabBorderSize;
-    private final Float tabMinWidthForCloseButton;
-    private final Integer colorButtonPosition;
-    private final Vec2 buttonTextAlign;
-    private final Vec2 selectableTextAlign;
-    private final Vec2 displayWindowPadding;
-    private final Vec2 displaySafeAreaPadding;
-    private final Float mouseCursorScale;
-    private final Boolean antiAliasedLines;
-    private final Boolean antiAliasedLinesUseTex;
-    private final Boolean antiAliasedFill;
-    private final Float curveTessellationTol;
-    private final Float circleTessellationMaxError;
+    private static final float[] NO_FLOATS = new float[0];
+    private static final int[] NO_INTS = new int[0];
+
+    final long fieldMask;
+    final float[] floats;
+    final int[] ints;
+    @Getter
     private final ColorPalette colorPalette;
+    @Getter
     private final ResourceId fontKey;
+    @Getter
     private final Float fontSize;
+    private volatile long structuralHash;
 
     private StyleDelta(Builder builder) {
-        this.alpha = builder.alpha;
-        this.disabledAlpha = builder.disabledAlpha;
-        this.windowPadding = builder.windowPadding;
-        this.windowRounding = builder.windowRounding;
-        this.windowBorderSize = builder.windowBorderSize;
-        this.windowMinSize = builder.windowMinSize;
-        this.windowTitleAlign = builder.windowTitleAlign;
-        this.windowMenuButtonPosition = builder.windowMenuButtonPosition;
-        this.childRounding = builder.childRounding;
-        this.childBorderSize = builder.childBorderSize;
-        this.popupRounding = builder.popupRounding;
-        this.popupBorderSize = builder.popupBorderSize;
-        this.framePadding = builder.framePadding;
-        this.frameRounding = builder.frameRounding;
-        this.frameBorderSize = builder.frameBorderSize;
-        this.itemSpacing = builder.itemSpacing;
-        this.itemInnerSpacing = builder.itemInnerSpacing;
-        this.cellPadding = builder.cellPadding;
-        this.touchExtraPadding = builder.touchExtraPadding;
-        this.indentSpacing = builder.indentSpacing;
-        this.columnsMinSpacing = builder.columnsMinSpacing;
-        this.scrollbarSize = builder.scrollbarSize;
-        this.scrollbarRounding = builder.scrollbarRounding;
-        this.grabMinSize = builder.grabMinSize;
-        this.grabRounding = builder.grabRounding;
-        this.logSliderDeadzone = builder.logSliderDeadzone;
-        this.tabRounding = builder.tabRounding;
-        this.tabBorderSize = builder.tabBorderSize;
-        this.tabMinWidthForCloseButton = builder.tabMinWidthForCloseButton;
-        this.colorButtonPosition = builder.colorButtonPosition;
-        this.buttonTextAlign = builder.buttonTextAlign;
-        this.selectableTextAlign = builder.selectableTextAlign;
-        this.displayWindowPadding = builder.displayWindowPadding;
-        this.displaySafeAreaPadding = builder.displaySafeAreaPadding;
-        this.mouseCursorScale = builder.mouseCursorScale;
-        this.antiAliasedLines = builder.antiAliasedLines;
-        this.antiAliasedLinesUseTex = builder.antiAliasedLinesUseTex;
-        this.antiAliasedFill = builder.antiAliasedFill;
-        this.curveTessellationTol = builder.curveTessellationTol;
-        this.circleTessellationMaxError = builder.circleTessellationMaxError;
+        long mask = builder.fieldMask;
+        this.fieldMask = mask;
+        int floatCount = StyleField.floatCount(mask);
+        int intCount = StyleField.intCount(mask);
+        this.floats = floatCount > 0 ? new float[floatCount] : NO_FLOATS;
+        this.ints = intCount > 0 ? new int[intCount] : NO_INTS;
+        int floatCursor = 0;
+        int intCursor = 0;
+        long pending = mask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            int slot = StyleField.slot(field);
+            if (StyleField.usesFloats(field)) {
+                int width = StyleField.width(field);
+                System.arraycopy(builder.floats, slot, floats, floatCursor, width);
+                floatCursor += width;
+            } else {
+                ints[intCursor++] = builder.ints[slot];
+            }
+        }
         this.colorPalette = builder.colorPalette;
         this.fontKey = builder.fontKey;
         this.fontSize = builder.fontSize;
@@ -102,576 +52,510 @@ public final class StyleDelta {
         return new Builder();
     }
 
+    public boolean isEmpty() {
+        return fieldMask == 0L && (colorPalette == null || colorPalette.isEmpty()) && fontKey == null && fontSize == null;
+    }
+
+    boolean has(int field) {
+        return field >= 0 && field < StyleField.COUNT && (fieldMask & (1L << field)) != 0L;
+    }
+
+    public Float getAlpha() {
+        return floatValue(StyleField.ALPHA);
+    }
+
+    public Float getDisabledAlpha() {
+        return floatValue(StyleField.DISABLED_ALPHA);
+    }
+
+    public Vec2 getWindowPadding() {
+        return vec2Value(StyleField.WINDOW_PADDING);
+    }
+
+    public Float getWindowRounding() {
+        return floatValue(StyleField.WINDOW_ROUNDING);
+    }
+
+    public Float getWindowBorderSize() {
+        return floatValue(StyleField.WINDOW_BORDER_SIZE);
+    }
+
+    public Vec2 getWindowMinSize() {
+        return vec2Value(StyleField.WINDOW_MIN_SIZE);
+    }
+
+    public Vec2 getWindowTitleAlign() {
+        return vec2Value(StyleField.WINDOW_TITLE_ALIGN);
+    }
+
+    public Integer getWindowMenuButtonPosition() {
+        return intValue(StyleField.WINDOW_MENU_BUTTON_POSITION);
+    }
+
+    public Float getChildRounding() {
+        return floatValue(StyleField.CHILD_ROUNDING);
+    }
+
+    public Float getChildBorderSize() {
+        return floatValue(StyleField.CHILD_BORDER_SIZE);
+    }
+
+    public Float getPopupRounding() {
+        return floatValue(StyleField.POPUP_ROUNDING);
+    }
+
+    public Float getPopupBorderSize() {
+        return floatValue(StyleField.POPUP_BORDER_SIZE);
+    }
+
+    public Vec2 getFramePadding() {
+        return vec2Value(StyleField.FRAME_PADDING);
+    }
+
+    public Float getFrameRounding() {
+        return floatValue(StyleField.FRAME_ROUNDING);
+    }
+
+    public Float getFrameBorderSize() {
+        return floatValue(StyleField.FRAME_BORDER_SIZE);
+    }
+
+    public Vec2 getItemSpacing() {
+        return vec2Value(StyleField.ITEM_SPACING);
+    }
+
+    public Vec2 getItemInnerSpacing() {
+        return vec2Value(StyleField.ITEM_INNER_SPACING);
+    }
+
+    public Vec2 getCellPadding() {
+        return vec2Value(StyleField.CELL_PADDING);
+    }
+
+    public Vec2 getTouchExtraPadding() {
+        return vec2Value(StyleField.TOUCH_EXTRA_PADDING);
+    }
+
+    public Float getIndentSpacing() {
+        return floatValue(StyleField.INDENT_SPACING);
+    }
+
+    public Float getColumnsMinSpacing() {
+        return floatValue(StyleField.COLUMNS_MIN_SPACING);
+    }
+
+    public Float getScrollbarSize() {
+        return floatValue(StyleField.SCROLLBAR_SIZE);
+    }
+
+    public Float getScrollbarRounding() {
+        return floatValue(StyleField.SCROLLBAR_ROUNDING);
+    }
+
+    public Float getGrabMinSize() {
+        return floatValue(StyleField.GRAB_MIN_SIZE);
+    }
+
+    public Float getGrabRounding() {
+        return floatValue(StyleField.GRAB_ROUNDING);
+    }
+
+    public Float getLogSliderDeadzone() {
+        return floatValue(StyleField.LOG_SLIDER_DEADZONE);
+    }
+
+    public Float getTabRounding() {
+        return floatValue(StyleField.TAB_ROUNDING);
+    }
+
+    public Float getTabBorderSize() {
+        return floatValue(StyleField.TAB_BORDER_SIZE);
+    }
+
+    public Float getTabMinWidthForCloseButton() {
+        return floatValue(StyleField.TAB_MIN_WIDTH_FOR_CLOSE_BUTTON);
+    }
+
+    public Integer getColorButtonPosition() {
+        return intValue(StyleField.COLOR_BUTTON_POSITION);
+    }
+
+    public Vec2 getButtonTextAlign() {
+        return vec2Value(StyleField.BUTTON_TEXT_ALIGN);
+    }
+
+    public Vec2 getSelectableTextAlign() {
+        return vec2Value(StyleField.SELECTABLE_TEXT_ALIGN);
+    }
+
+    public Vec2 getDisplayWindowPadding() {
+        return vec2Value(StyleField.DISPLAY_WINDOW_PADDING);
+    }
+
+    public Vec2 getDisplaySafeAreaPadding() {
+        return vec2Value(StyleField.DISPLAY_SAFE_AREA_PADDING);
+    }
+
+    public Float getMouseCursorScale() {
+        return floatValue(StyleField.MOUSE_CURSOR_SCALE);
+    }
+
+    public Boolean getAntiAliasedLines() {
+        return boolValue(StyleField.ANTI_ALIASED_LINES);
+    }
+
+    public Boolean getAntiAliasedLinesUseTex() {
+        return boolValue(StyleField.ANTI_ALIASED_LINES_USE_TEX);
+    }
+
+    public Boolean getAntiAliasedFill() {
+        return boolValue(StyleField.ANTI_ALIASED_FILL);
+    }
+
+    public Float getCurveTessellationTol() {
+        return floatValue(StyleField.CURVE_TESSELLATION_TOL);
+    }
+
+    public Float getCircleTessellationMaxError() {
+        return floatValue(StyleField.CIRCLE_TESSELLATION_MAX_ERROR);
+    }
+
     public void applyTo(ImGuiStyle style) {
         if (style == null) {
             return;
         }
-        if (alpha != null) {
-            style.setAlpha(alpha);
-        }
-        if (disabledAlpha != null) {
-            style.setDisabledAlpha(disabledAlpha);
-        }
-        if (windowPadding != null) {
-            style.setWindowPadding(windowPadding.x(), windowPadding.y());
-        }
-        if (windowRounding != null) {
-            style.setWindowRounding(windowRounding);
-        }
-        if (windowBorderSize != null) {
-            style.setWindowBorderSize(windowBorderSize);
-        }
-        if (windowMinSize != null) {
-            style.setWindowMinSize(windowMinSize.x(), windowMinSize.y());
-        }
-        if (windowTitleAlign != null) {
-            style.setWindowTitleAlign(windowTitleAlign.x(), windowTitleAlign.y());
-        }
-        if (windowMenuButtonPosition != null) {
-            style.setWindowMenuButtonPosition(windowMenuButtonPosition);
-        }
-        if (childRounding != null) {
-            style.setChildRounding(childRounding);
-        }
-        if (childBorderSize != null) {
-            style.setChildBorderSize(childBorderSize);
-        }
-        if (popupRounding != null) {
-            style.setPopupRounding(popupRounding);
-        }
-        if (popupBorderSize != null) {
-            style.setPopupBorderSize(popupBorderSize);
-        }
-        if (framePadding != null) {
-            style.setFramePadding(framePadding.x(), framePadding.y());
-        }
-        if (frameRounding != null) {
-            style.setFrameRounding(frameRounding);
-        }
-        if (frameBorderSize != null) {
-            style.setFrameBorderSize(frameBorderSize);
-        }
-        if (itemSpacing != null) {
-            style.setItemSpacing(itemSpacing.x(), itemSpacing.y());
-        }
-        if (itemInnerSpacing != null) {
-            style.setItemInnerSpacing(itemInnerSpacing.x(), itemInnerSpacing.y());
-        }
-        if (cellPadding != null) {
-            style.setCellPadding(cellPadding.x(), cellPadding.y());
-        }
-        if (touchExtraPadding != null) {
-            style.setTouchExtraPadding(touchExtraPadding.x(), touchExtraPadding.y());
-        }
-        if (indentSpacing != null) {
-            style.setIndentSpacing(indentSpacing);
-        }
-        if (columnsMinSpacing != null) {
-            style.setColumnsMinSpacing(columnsMinSpacing);
-        }
-        if (scrollbarSize != null) {
-            style.setScrollbarSize(scrollbarSize);
-        }
-        if (scrollbarRounding != null) {
-            style.setScrollbarRounding(scrollbarRounding);
-        }
-        if (grabMinSize != null) {
-            style.setGrabMinSize(grabMinSize);
-        }
-        if (grabRounding != null) {
-            style.setGrabRounding(grabRounding);
-        }
-        if (logSliderDeadzone != null) {
-            style.setLogSliderDeadzone(logSliderDeadzone);
-        }
-        if (tabRounding != null) {
-            style.setTabRounding(tabRounding);
-        }
-        if (tabBorderSize != null) {
-            style.setTabBorderSize(tabBorderSize);
-        }
-        if (tabMinWidthForCloseButton != null) {
-            style.setTabMinWidthForCloseButton(tabMinWidthForCloseButton);
-        }
-        if (colorButtonPosition != null) {
-            style.setColorButtonPosition(colorButtonPosition);
-        }
-        if (buttonTextAlign != null) {
-            style.setButtonTextAlign(buttonTextAlign.x(), buttonTextAlign.y());
-        }
-        if (selectableTextAlign != null) {
-            style.setSelectableTextAlign(selectableTextAlign.x(), selectableTextAlign.y());
-        }
-        if (displayWindowPadding != null) {
-            style.setDisplayWindowPadding(displayWindowPadding.x(), displayWindowPadding.y());
-        }
-        if (displaySafeAreaPadding != null) {
-            style.setDisplaySafeAreaPadding(displaySafeAreaPadding.x(), displaySafeAreaPadding.y());
-        }
-        if (mouseCursorScale != null) {
-            style.setMouseCursorScale(mouseCursorScale);
-        }
-        if (antiAliasedLines != null) {
-            style.setAntiAliasedLines(antiAliasedLines);
-        }
-        if (antiAliasedLinesUseTex != null) {
-            style.setAntiAliasedLinesUseTex(antiAliasedLinesUseTex);
-        }
-        if (antiAliasedFill != null) {
-            style.setAntiAliasedFill(antiAliasedFill);
-        }
-        if (curveTessellationTol != null) {
-            style.setCurveTessellationTol(curveTessellationTol);
-        }
-        if (circleTessellationMaxError != null) {
-            style.setCircleTessellationMaxError(circleTessellationMaxError);
+        int floatCursor = 0;
+        int intCursor = 0;
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            if (StyleField.usesFloats(field)) {
+                StyleField.write(style, field, floats, ints, floatCursor);
+                floatCursor += StyleField.width(field);
+            } else {
+                StyleField.write(style, field, floats, ints, intCursor++);
+            }
         }
         if (colorPalette != null) {
             colorPalette.applyTo(style);
         }
     }
 
+    void writeTo(PackedStyle target) {
+        int floatCursor = 0;
+        int intCursor = 0;
+        long pending = fieldMask;
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            int slot = StyleField.slot(field);
+            if (StyleField.usesFloats(field)) {
+                int width = StyleField.width(field);
+                System.arraycopy(floats, floatCursor, target.floats, slot, width);
+                floatCursor += width;
+            } else {
+                target.ints[slot] = ints[intCursor++];
+            }
+        }
+        target.fieldMask |= fieldMask;
+        if (colorPalette != null) {
+            colorPalette.writeTo(target);
+        }
+    }
+
+    long structuralHash() {
+        long hash = structuralHash;
+        if (hash == 0L) {
+            hash = PackedStyle.mix(fieldMask, floats.length);
+            for (float value : floats) {
+                hash = PackedStyle.mix(hash, Float.floatToIntBits(value));
+            }
+            for (int value : ints) {
+                hash = PackedStyle.mix(hash, value);
+            }
+            hash = PackedStyle.mix(hash, Objects.hashCode(colorPalette));
+            hash = PackedStyle.mix(hash, Objects.hashCode(fontKey));
+            hash = PackedStyle.mix(hash, fontSize != null ? Float.floatToIntBits(fontSize) : -1L);
+            if (hash == 0L) {
+                hash = 1L;
+            }
+            structuralHash = hash;
+        }
+        return hash;
+    }
+
     public StyleDescriptor resolve(StyleDescriptor base) {
         Objects.requireNonNull(base, "base");
-        StyleDescriptor.Builder builder = StyleDescriptor.builder().fromDescriptor(base);
-        if (alpha != null) {
-            builder.alpha(alpha);
-        }
-        if (disabledAlpha != null) {
-            builder.disabledAlpha(disabledAlpha);
-        }
-        if (windowPadding != null) {
-            builder.windowPadding(windowPadding);
-        }
-        if (windowRounding != null) {
-            builder.windowRounding(windowRounding);
-        }
-        if (windowBorderSize != null) {
-            builder.windowBorderSize(windowBorderSize);
-        }
-        if (windowMinSize != null) {
-            builder.windowMinSize(windowMinSize);
-        }
-        if (windowTitleAlign != null) {
-            builder.windowTitleAlign(windowTitleAlign);
-        }
-        if (windowMenuButtonPosition != null) {
-            builder.windowMenuButtonPosition(windowMenuButtonPosition);
-        }
-        if (childRounding != null) {
-            builder.childRounding(childRounding);
-        }
-        if (childBorderSize != null) {
-            builder.childBorderSize(childBorderSize);
-        }
-        if (popupRounding != null) {
-            builder.popupRounding(popupRounding);
-        }
-        if (popupBorderSize != null) {
-            builder.popupBorderSize(popupBorderSize);
-        }
-        if (framePadding != null) {
-            builder.framePadding(framePadding);
-        }
-        if (frameRounding != null) {
-            builder.frameRounding(frameRounding);
-        }
-        if (frameBorderSize != null) {
-            builder.frameBorderSize(frameBorderSize);
-        }
-        if (itemSpacing != null) {
-            builder.itemSpacing(itemSpacing);
-        }
-        if (itemInnerSpacing != null) {
-            builder.itemInnerSpacing(itemInnerSpacing);
-        }
-        if (cellPadding != null) {
-            builder.cellPadding(cellPadding);
-        }
-        if (touchExtraPadding != null) {
-            builder.touchExtraPadding(touchExtraPadding);
-        }
-        if (indentSpacing != null) {
-            builder.indentSpacing(indentSpacing);
-        }
-        if (columnsMinSpacing != null) {
-            builder.columnsMinSpacing(columnsMinSpacing);
-        }
-        if (scrollbarSize != null) {
-            builder.scrollbarSize(scrollbarSize);
-        }
-        if (scrollbarRounding != null) {
-            builder.scrollbarRounding(scrollbarRounding);
-        }
-        if (grabMinSize != null) {
-            builder.grabMinSize(grabMinSize);
-        }
-        if (grabRounding != null) {
-            builder.grabRounding(grabRounding);
-        }
-        if (logSliderDeadzone != null) {
-            builder.logSliderDeadzone(logSliderDeadzone);
-        }
-        if (tabRounding != null) {
-            builder.tabRounding(tabRounding);
-        }
-        if (tabBorderSize != null) {
-            builder.tabBorderSize(tabBorderSize);
-        }
-        if (tabMinWidthForCloseButton != null) {
-            builder.tabMinWidthForCloseButton(tabMinWidthForCloseButton);
-        }
-        if (colorButtonPosition != null) {
-            builder.colorButtonPosition(colorButtonPosition);
-        }
-        if (buttonTextAlign != null) {
-            builder.buttonTextAlign(buttonTextAlign);
-        }
-        if (selectableTextAlign != null) {
-            builder.selectableTextAlign(selectableTextAlign);
-        }
-        if (displayWindowPadding != null) {
-            builder.displayWindowPadding(displayWindowPadding);
-        }
-        if (displaySafeAreaPadding != null) {
-            builder.displaySafeAreaPadding(displaySafeAreaPadding);
-        }
-        if (mouseCursorScale != null) {
-            builder.mouseCursorScale(mouseCursorScale);
-        }
-        if (antiAliasedLines != null) {
-            builder.antiAliasedLines(antiAliasedLines);
-        }
-        if (antiAliasedLinesUseTex != null) {
-            builder.antiAliasedLinesUseTex(antiAliasedLinesUseTex);
-        }
-        if (antiAliasedFill != null) {
-            builder.antiAliasedFill(antiAliasedFill);
-        }
-        if (curveTessellationTol != null) {
-            builder.curveTessellationTol(curveTessellationTol);
-        }
-        if (circleTessellationMaxError != null) {
-            builder.circleTessellationMaxError(circleTessellationMaxError);
-        }
+        PackedStyle merged = new PackedStyle();
+        merged.copyFrom(base.compiled());
+        writeTo(merged);
         ColorPalette palette = colorPalette != null ? base.getColorPalette().mergedWith(colorPalette) : base.getColorPalette();
-        builder.colorPalette(palette);
-        if (fontKey != null) {
-            builder.fontKey(fontKey);
-        } else {
-            builder.fontKey(base.getFontKey());
-        }
-        if (fontSize != null) {
-            builder.fontSize(fontSize);
-        } else {
-            builder.fontSize(base.getFontSize());
+        ResourceId resolvedFontKey = fontKey != null ? fontKey : base.getFontKey();
+        Float resolvedFontSize = fontSize != null ? fontSize : base.getFontSize();
+        return StyleDescriptor.fromPacked(merged, base, palette, resolvedFontKey, resolvedFontSize);
+    }
+
+    private int position(int field) {
+        long preceding = fieldMask & ((1L << field) - 1L);
+        return StyleField.usesFloats(field) ? StyleField.floatCount(preceding) : StyleField.intCount(preceding);
+    }
+
+    private Float floatValue(int field) {
+        return has(field) ? floats[position(field)] : null;
+    }
+
+    private Vec2 vec2Value(int field) {
+        if (!has(field)) {
+            return null;
         }
-        return builder.build();
+        int position = position(field);
+        return Vec2.of(floats[position], floats[position + 1]);
+    }
+
+    private Integer intValue(int field) {
+        return has(field) ? ints[position(field)] : null;
+    }
+
+    private Boolean boolValue(int field) {
+        return has(field) ? ints[position(field)] != 0 : null;
     }
 
     public static final class Builder {
-        private Float alpha;
-        private Float disabledAlpha;
-        private Vec2 windowPadding;
-        private Float windowRounding;
-        private Float windowBorderSize;
-        private Vec2 windowMinSize;
-        private Vec2 windowTitleAlign;
-        private Integer windowMenuButtonPosition;
-        private Float childRounding;
-        private Float childBorderSize;
-        private Float popupRounding;
-        private Float popupBorderSize;
-        private Vec2 framePadding;
-        private Float frameRounding;
-        private Float frameBorderSize;
-        private Vec2 itemSpacing;
-        private Vec2 itemInnerSpacing;
-        private Vec2 cellPadding;
-        private Vec2 touchExtraPadding;
-        private Float indentSpacing;
-        private Float columnsMinSpacing;
-        private Float scrollbarSize;
-        private Float scrollbarRounding;
-        private Float grabMinSize;
-        private Float grabRounding;
-        private Float logSliderDeadzone;
-        private Float tabRounding;
-        private Float tabBorderSize;
-        private Float tabMinWidthForCloseButton;
-        private Integer colorButtonPosition;
-        private Vec2 buttonTextAlign;
-        private Vec2 selectableTextAlign;
-        private Vec2 displayWindowPadding;
-        private Vec2 displaySafeAreaPadding;
-        private Float mouseCursorScale;
-        private Boolean antiAliasedLines;
-        private Boolean antiAliasedLinesUseTex;
-        private Boolean antiAliasedFill;
-        private Float curveTessellationTol;
-        private Float circleTessellationMaxError;
+        private final float[] floats = new float[StyleField.FLOAT_SLOTS];
+        private final int[] ints = new int[StyleField.INT_SLOTS];
+        private long fieldMask;
         private ColorPalette colorPalette;
         private ResourceId fontKey;
         private Float fontSize;
+        private StyleDelta lastBuilt;
 
-        public Builder alpha(float value) {
-            this.alpha = value;
+        public Builder reset() {
+            fieldMask = 0L;
+            colorPalette = null;
+            fontKey = null;
+            fontSize = null;
             return this;
         }
 
+        public Builder alpha(float value) {
+            return setFloat(StyleField.ALPHA, value);
+        }
+
         public Builder disabledAlpha(float value) {
-            this.disabledAlpha = value;
-            return this;
+            return setFloat(StyleField.DISABLED_ALPHA, value);
         }
 
         public Builder windowPadding(float x, float y) {
-            this.windowPadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.WINDOW_PADDING, x, y);
         }
 
         public Builder windowPadding(Vec2 value) {
-            this.windowPadding = Objects.requireNonNull(value, "windowPadding");
-            return this;
+            Objects.requireNonNull(value, "windowPadding");
+            return setVec2(StyleField.WINDOW_PADDING, value.x(), value.y());
         }
 
         public Builder windowRounding(float value) {
-            this.windowRounding = value;
-            return this;
+            return setFloat(StyleField.WINDOW_ROUNDING, value);
         }
 
         public Builder windowBorderSize(float value) {
-            this.windowBorderSize = value;
-            return this;
+            return setFloat(StyleField.WINDOW_BORDER_SIZE, value);
         }
 
         public Builder windowMinSize(float x, float y) {
-            this.windowMinSize = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.WINDOW_MIN_SIZE, x, y);
         }
 
         public Builder windowMinSize(Vec2 value) {
-            this.windowMinSize = Objects.requireNonNull(value, "windowMinSize");
-            return this;
+            Objects.requireNonNull(value, "windowMinSize");
+            return setVec2(StyleField.WINDOW_MIN_SIZE, value.x(), value.y());
         }
 
         public Builder windowTitleAlign(float x, float y) {
-            this.windowTitleAlign = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.WINDOW_TITLE_ALIGN, x, y);
         }
 
         public Builder windowTitleAlign(Vec2 value) {
-            this.windowTitleAlign = Objects.requireNonNull(value, "windowTitleAlign");
-            return this;
+            Objects.requireNonNull(value, "windowTitleAlign");
+            return setVec2(StyleField.WINDOW_TITLE_ALIGN, value.x(), value.y());
         }
 
         public Builder windowMenuButtonPosition(int value) {
-            this.windowMenuButtonPosition = value;
-            return this;
+            return setInt(StyleField.WINDOW_MENU_BUTTON_POSITION, value);
         }
 
         public Builder childRounding(float value) {
-            this.childRounding = value;
-            return this;
+            return setFloat(StyleField.CHILD_ROUNDING, value);
         }
 
         public Builder childBorderSize(float value) {
-            this.childBorderSize = value;
-            return this;
+            return setFloat(StyleField.CHILD_BORDER_SIZE, value);
         }
 
         public Builder popupRounding(float value) {
-            this.popupRounding = value;
-            return this;
+            return setFloat(StyleField.POPUP_ROUNDING, value);
         }
 
         public Builder popupBorderSize(float value) {
-            this.popupBorderSize = value;
-            return this;
+            return setFloat(StyleField.POPUP_BORDER_SIZE, value);
         }
 
         public Builder framePadding(float x, float y) {
-            this.framePadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.FRAME_PADDING, x, y);
         }
 
         public Builder framePadding(Vec2 value) {
-            this.framePadding = Objects.requireNonNull(value, "framePadding");
-            return this;
+            Objects.requireNonNull(value, "framePadding");
+            return setVec2(StyleField.FRAME_PADDING, value.x(), value.y());
         }
 
         public Builder frameRounding(float value) {
-            this.frameRounding = value;
-            return this;
+            return setFloat(StyleField.FRAME_ROUNDING, value);
         }
 
         public Builder frameBorderSize(float value) {
-            this.frameBorderSize = value;
-            return this;
+            return setFloat(StyleField.FRAME_BORDER_SIZE, value);
         }
 
         public Builder itemSpacing(float x, float y) {
-            this.itemSpacing = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.ITEM_SPACING, x, y);
         }
 
         public Builder itemSpacing(Vec2 value) {
-            this.itemSpacing = Objects.requireNonNull(value, "itemSpacing");
-            return this;
+            Objects.requireNonNull(value, "itemSpacing");
+            return setVec2(StyleField.ITEM_SPACING, value.x(), value.y());
         }
 
         public Builder itemInnerSpacing(float x, float y) {
-            this.itemInnerSpacing = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.ITEM_INNER_SPACING, x, y);
         }
 
         public Builder itemInnerSpacing(Vec2 value) {
-            this.itemInnerSpacing = Objects.requireNonNull(value, "itemInnerSpacing");
-            return this;
+            Objects.requireNonNull(value, "itemInnerSpacing");
+            return setVec2(StyleField.ITEM_INNER_SPACING, value.x(), value.y());
         }
 
         public Builder cellPadding(float x, float y) {
-            this.cellPadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.CELL_PADDING, x, y);
         }
 
         public Builder cellPadding(Vec2 value) {
-            this.cellPadding = Objects.requireNonNull(value, "cellPadding");
-            return this;
+            Objects.requireNonNull(value, "cellPadding");
+            return setVec2(StyleField.CELL_PADDING, value.x(), value.y());
         }
 
         public Builder touchExtraPadding(float x, float y) {
-            this.touchExtraPadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.TOUCH_EXTRA_PADDING, x, y);
         }
 
         public Builder touchExtraPadding(Vec2 value) {
-            this.touchExtraPadding = Objects.requireNonNull(value, "touchExtraPadding");
-            return this;
+            Objects.requireNonNull(value, "touchExtraPadding");
+            return setVec2(StyleField.TOUCH_EXTRA_PADDING, value.x(), value.y());
         }
 
         public Builder indentSpacing(float value) {
-            this.indentSpacing = value;
-            return this;
+            return setFloat(StyleField.INDENT_SPACING, value);
         }
 
         public Builder columnsMinSpacing(float value) {
-            this.columnsMinSpacing = value;
-            return this;
+            return setFloat(StyleField.COLUMNS_MIN_SPACING, value);
         }
 
         public Builder scrollbarSize(float value) {
-            this.scrollbarSize = value;
-            return this;
+            return setFloat(StyleField.SCROLLBAR_SIZE, value);
         }
 
         public Builder scrollbarRounding(float value) {
-            this.scrollbarRounding = value;
-            return this;
+            return setFloat(StyleField.SCROLLBAR_ROUNDING, value);
         }
 
         public Builder grabMinSize(float value) {
-            this.grabMinSize = value;
-            return this;
+            return setFloat(StyleField.GRAB_MIN_SIZE, value);
         }
 
         public Builder grabRounding(float value) {
-            this.grabRounding = value;
-            return this;
+            return setFloat(StyleField.GRAB_ROUNDING, value);
         }
 
         public Builder logSliderDeadzone(float value) {
-            this.logSliderDeadzone = value;
-            return this;
+            return setFloat(StyleField.LOG_SLIDER_DEADZONE, value);
         }
 
         public Builder tabRounding(float value) {
-            this.tabRounding = value;
-            return this;
+            return setFloat(StyleField.TAB_ROUNDING, value);
         }
 
         public Builder tabBorderSize(float value) {
-            this.tabBorderSize = value;
-            return this;
+            return setFloat(StyleField.TAB_BORDER_SIZE, value);
         }
 
         public Builder tabMinWidthForCloseButton(float value) {
-            this.tabMinWidthForCloseButton = value;
-            return this;
+            return setFloat(StyleField.TAB_MIN_WIDTH_FOR_CLOSE_BUTTON, value);
         }
 
         public Builder colorButtonPosition(int value) {
-            this.colorButtonPosition = value;
-            return this;
+            return setInt(StyleField.COLOR_BUTTON_POSITION, value);
         }
 
         public Builder buttonTextAlign(float x, float y) {
-            this.buttonTextAlign = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.BUTTON_TEXT_ALIGN, x, y);
         }
 
         public Builder buttonTextAlign(Vec2 value) {
-            this.buttonTextAlign = Objects.requireNonNull(value, "buttonTextAlign");
-            return this;
+            Objects.requireNonNull(value, "buttonTextAlign");
+            return setVec2(StyleField.BUTTON_TEXT_ALIGN, value.x(), value.y());
         }
 
         public Builder selectableTextAlign(float x, float y) {
-            this.selectableTextAlign = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.SELECTABLE_TEXT_ALIGN, x, y);
         }
 
         public Builder selectableTextAlign(Vec2 value) {
-            this.selectableTextAlign = Objects.requireNonNull(value, "selectableTextAlign");
-            return this;
+            Objects.requireNonNull(value, "selectableTextAlign");
+            return setVec2(StyleField.SELECTABLE_TEXT_ALIGN, value.x(), value.y());
         }
 
         public Builder displayWindowPadding(float x, float y) {
-            this.displayWindowPadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.DISPLAY_WINDOW_PADDING, x, y);
         }
 
         public Builder displayWindowPadding(Vec2 value) {
-            this.displayWindowPadding = Objects.requireNonNull(value, "displayWindowPadding");
-            return this;
+            Objects.requireNonNull(value, "displayWindowPadding");
+            return setVec2(StyleField.DISPLAY_WINDOW_PADDING, value.x(), value.y());
         }
 
         public Builder displaySafeAreaPadding(float x, float y) {
-            this.displaySafeAreaPadding = Vec2.of(x, y);
-            return this;
+            return setVec2(StyleField.DISPLAY_SAFE_AREA_PADDING, x, y);
         }
 
         public Builder displaySafeAreaPadding(Vec2 value) {
-            this.displaySafeAreaPadding = Objects.requireNonNull(value, "displaySafeAreaPadding");
-            return this;
+            Objects.requireNonNull(value, "displaySafeAreaPadding");
+            return setVec2(StyleField.DISPLAY_SAFE_AREA_PADDING, value.x(), value.y());
         }
 
         public Builder mouseCursorScale(float value) {
-            this.mouseCursorScale = value;
-            return this;
+            return setFloat(StyleField.MOUSE_CURSOR_SCALE, value);
         }
 
         public Builder antiAliasedLines(boolean value) {
-            this.antiAliasedLines = value;
-            return this;
+            return setInt(StyleField.ANTI_ALIASED_LINES, value ? 1 : 0);
         }
 
         public Builder antiAliasedLinesUseTex(boolean value) {
-            this.antiAliasedLinesUseTex = value;
-            return this;
+            return setInt(StyleField.ANTI_ALIASED_LINES_USE_TEX, value ? 1 : 0);
         }
 
         public Builder antiAliasedFill(boolean value) {
-            this.antiAliasedFill = value;
-            return this;
+            return setInt(StyleField.ANTI_ALIASED_FILL, value ? 1 : 0);
         }
 
         public Builder curveTessellationTol(float value) {
-            this.curveTessellationTol = value;
-            return this;
+            return setFloat(StyleField.CURVE_TESSELLATION_TOL, value);
         }
 
         public Builder circleTessellationMaxError(float value) {
-            this.circleTessellationMaxError = value;
-            return this;
+            return setFloat(StyleField.CIRCLE_TESSELLATION_MAX_ERROR, value);
         }
 
         public Builder colorPalette(ColorPalette value) {
@@ -690,9 +574,61 @@ public final class StyleDelta {
         }
 
         public StyleDelta build() {
+            StyleDelta previous = lastBuilt;
+            if (previous != null && matches(previous)) {
+                return previous;
+            }
             StyleDelta delta = new StyleDelta(this);
             StyleValidation.validateDelta(delta);
+            lastBuilt = delta;
             return delta;
         }
+
+        private Builder setFloat(int field, float value) {
+            floats[StyleField.slot(field)] = value;
+            fieldMask |= 1L << field;
+            return this;
+        }
+
+        private Builder setVec2(int field, float x, float y) {
+            int slot = StyleField.slot(field);
+            floats[slot] = x;
+            floats[slot + 1] = y;
+            fieldMask |= 1L << field;
+            return this;
+        }
+
+        private Builder setInt(int field, int value) {
+            ints[StyleField.slot(field)] = value;
+            fieldMask |= 1L << field;
+            return this;
+        }
+
+        private boolean matches(StyleDelta delta) {
+            if (delta.fieldMask != fieldMask
+                    || !Objects.equals(delta.colorPalette, colorPalette)
+                    || !Objects.equals(delta.fontKey, fontKey)
+                    || !Objects.equals(delta.fontSize, fontSize)) {
+                return false;
+            }
+            int floatCursor = 0;
+            int intCursor = 0;
+            long pending = fieldMask;
+            while (pending != 0L) {
+                int field = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                int slot = StyleField.slot(field);
+                if (StyleField.usesFloats(field)) {
+                    for (int offset = 0; offset < StyleField.width(field); offset++) {
+                        if (Float.floatToIntBits(delta.floats[floatCursor++]) != Float.floatToIntBits(floats[slot + offset])) {
+                            return false;
+                        }
+                    }
+                } else if (delta.ints[intCursor++] != ints[slot]) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
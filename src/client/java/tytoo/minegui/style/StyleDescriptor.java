@@ -1,6 +1,7 @@
 package tytoo.minegui.style;
 
 import imgui.ImGuiStyle;
+import lombok.AccessLevel;
 import lombok.Getter;
 import tytoo.minegui.util.ResourceId;
 
@@ -51,6 +52,10 @@ public final class StyleDescriptor {
     private final ColorPalette colorPalette;
     private final ResourceId fontKey;
     private final Float fontSize;
+    @Getter(AccessLevel.NONE)
+    private volatile PackedStyle packed;
+    @Getter(AccessLevel.NONE)
+    private volatile long structuralHash;
 
     private StyleDescriptor(Builder builder) {
         this.alpha = builder.alpha;
@@ -98,10 +103,62 @@ public final class StyleDescriptor {
         this.fontSize = builder.fontSize;
     }
 
+    private StyleDescriptor(PackedStyle packed, StyleDescriptor base, ColorPalette colorPalette, ResourceId fontKey, Float fontSize) {
+        this.alpha = packed.getFloat(StyleField.ALPHA);
+        this.disabledAlpha = packed.getFloat(StyleField.DISABLED_ALPHA);
+        this.windowPadding = packed.getVec2(StyleField.WINDOW_PADDING, base != null ? base.windowPadding : null);
+        this.windowRounding = packed.getFloat(StyleField.WINDOW_ROUNDING);
+        this.windowBorderSize = packed.getFloat(StyleField.WINDOW_BORDER_SIZE);
+        this.windowMinSize = packed.getVec2(StyleField.WINDOW_MIN_SIZE, base != null ? base.windowMinSize : null);
+        this.windowTitleAlign = packed.getVec2(StyleField.WINDOW_TITLE_ALIGN, base != null ? base.windowTitleAlign : null);
+        this.windowMenuButtonPosition = packed.getInt(StyleField.WINDOW_MENU_BUTTON_POSITION);
+        this.childRounding = packed.getFloat(StyleField.CHILD_ROUNDING);
+        this.childBorderSize = packed.getFloat(StyleField.CHILD_BORDER_SIZE);
+        this.popupRounding = packed.getFloat(StyleField.POPUP_ROUNDING);
+        this.popupBorderSize = packed.getFloat(StyleField.POPUP_BORDER_SIZE);
+        this.framePadding = packed.getVec2(StyleField.FRAME_PADDING, base != null ? base.framePadding : null);
+        this.frameRounding = packed.getFloat(StyleField.FRAME_ROUNDING);
+        this.frameBorderSize = packed.getFloat(StyleField.FRAME_BORDER_SIZE);
+        this.itemSpacing = packed.getVec2(StyleField.ITEM_SPACING, base != null ? base.itemSpacing : null);
+        this.itemInnerSpacing = packed.getVec2(StyleField.ITEM_INNER_SPACING, base != null ? base.itemInnerSpacing : null);
+        this.cellPadding = packed.getVec2(StyleField.CELL_PADDING, base != null ? base.cellPadding : null);
+        this.touchExtraPadding = packed.getVec2(StyleField.TOUCH_EXTRA_PADDING, base != null ? base.touchExtraPadding : null);
+        this.indentSpacing = packed.getFloat(StyleField.INDENT_SPACING);
+        this.columnsMinSpacing = packed.getFloat(StyleField.COLUMNS_MIN_SPACING);
+        this.scrollbarSize = packed.getFloat(StyleField.SCROLLBAR_SIZE);
+        this.scrollbarRounding = packed.getFloat(StyleField.SCROLLBAR_ROUNDING);
+        this.grabMinSize = packed.getFloat(StyleField.GRAB_MIN_SIZE);
+        this.grabRounding = packed.getFloat(StyleField.GRAB_ROUNDING);
+        this.logSliderDeadzone = packed.getFloat(StyleField.LOG_SLIDER_DEADZONE);
+        this.tabRounding = packed.getFloat(StyleField.TAB_ROUNDING);
+        this.tabBorderSize = packed.getFloat(StyleField.TAB_BORDER_SIZE);
+        this.tabMinWidthForCloseButton = packed.getFloat(StyleField.TAB_MIN_WIDTH_FOR_CLOSE_BUTTON);
+        this.colorButtonPosition = packed.getInt(StyleField.COLOR_BUTTON_POSITION);
+        this.buttonTextAlign = packed.getVec2(StyleField.BUTTON_TEXT_ALIGN, base != null ? base.buttonTextAlign : null);
+        this.selectableTextAlign = packed.getVec2(StyleField.SELECTABLE_TEXT_ALIGN, base != null ? base.selectableTextAlign : null);
+        this.displayWindowPadding = packed.getVec2(StyleField.DISPLAY_WINDOW_PADDING, base != null ? base.displayWindowPadding : null);
+        this.displaySafeAreaPadding = packed.getVec2(StyleField.DISPLAY_SAFE_AREA_PADDING, base != null ? base.displaySafeAreaPadding : null);
+        this.mouseCursorScale = packed.getFloat(StyleField.MOUSE_CURSOR_SCALE);
+        this.antiAliasedLines = packed.getBool(StyleField.ANTI_ALIASED_LINES);
+        this.antiAliasedLinesUseTex = packed.getBool(StyleField.ANTI_ALIASED_LINES_USE_TEX);
+        this.antiAliasedFill = packed.getBool(StyleField.ANTI_ALIASED_FILL);
+        this.curveTessellationTol = packed.getFloat(StyleField.CURVE_TESSELLATION_TOL);
+        this.circleTessellationMaxError = packed.getFloat(StyleField.CIRCLE_TESSELLATION_MAX_ERROR);
+        this.colorPalette = colorPalette != null ? colorPalette : ColorPalette.empty();
+        this.fontKey = fontKey;
+        this.fontSize = fontSize;
+        this.packed = packed;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
+    static StyleDescriptor fromPacked(PackedStyle packed, StyleDescriptor base, ColorPalette colorPalette, ResourceId fontKey, Float fontSize) {
+        Objects.requireNonNull(packed, "packed");
+        return new StyleDescriptor(packed, base, colorPalette, fontKey, fontSize);
+    }
+
     public static StyleDescriptor capture(ImGuiStyle style) {
         return capture(style, ColorPalette.fromStyle(style), null, null);
     }
@@ -119,47 +176,79 @@ public final class StyleDescriptor {
         if (style == null) {
             return;
         }
-        style.setAlpha(alpha);
-        style.setDisabledAlpha(disabledAlpha);
-        style.setWindowPadding(windowPadding.x(), windowPadding.y());
-        style.setWindowRounding(windowRounding);
-        style.setWindowBorderSize(windowBorderSize);
-        style.setWindowMinSize(windowMinSize.x(), windowMinSize.y());
-        style.setWindowTitleAlign(windowTitleAlign.x(), windowTitleAlign.y());
-        style.setWindowMenuButtonPosition(windowMenuButtonPosition);
-        style.setChildRounding(childRounding);
-        style.setChildBorderSize(childBorderSize);
-        style.setPopupRounding(popupRounding);
-        style.setPopupBorderSize(popupBorderSize);
-        style.setFramePadding(framePadding.x(), framePadding.y());
-        style.setFrameRounding(frameRounding);
-        style.setFrameBorderSize(frameBorderSize);
-        style.setItemSpacing(itemSpacing.x(), itemSpacing.y());
-        style.setItemInnerSpacing(itemInnerSpacing.x(), itemInnerSpacing.y());
-        style.setCellPadding(cellPadding.x(), cellPadding.y());
-        style.setTouchExtraPadding(touchExtraPadding.x(), touchExtraPadding.y());
-        style.setIndentSpacing(indentSpacing);
-        style.setColumnsMinSpacing(columnsMinSpacing);
-        style.setScrollbarSize(scrollbarSize);
-        style.setScrollbarRounding(scrollbarRounding);
-        style.setGrabMinSize(grabMinSize);
-        style.setGrabRounding(grabRounding);
-        style.setLogSliderDeadzone(logSliderDeadzone);
-        style.setTabRounding(tabRounding);
-        style.setTabBorderSize(tabBorderSize);
-        style.setTabMinWidthForCloseButton(tabMinWidthForCloseButton);
-        style.setColorButtonPosition(colorButtonPosition);
-        style.setButtonTextAlign(buttonTextAlign.x(), buttonTextAlign.y());
-        style.setSelectableTextAlign(selectableTextAlign.x(), selectableTextAlign.y());
-        style.setDisplayWindowPadding(displayWindowPadding.x(), displayWindowPadding.y());
-        style.setDisplaySafeAreaPadding(displaySafeAreaPadding.x(), displaySafeAreaPadding.y());
-        style.setMouseCursorScale(mouseCursorScale);
-        style.setAntiAliasedLines(antiAliasedLines);
-        style.setAntiAliasedLinesUseTex(antiAliasedLinesUseTex);
-        style.setAntiAliasedFill(antiAliasedFill);
-        style.setCurveTessellationTol(curveTessellationTol);
-        style.setCircleTessellationMaxError(circleTessellationMaxError);
-        colorPalette.applyTo(style);
+        compiled().applyTo(style);
+    }
+
+    PackedStyle compiled() {
+        PackedStyle current = packed;
+        if (current == null) {
+            current = compile();
+            packed = current;
+        }
+        return current;
+    }
+
+    void writeTo(PackedStyle target) {
+        target.overlay(compiled());
+    }
+
+    long structuralHash() {
+        long hash = structuralHash;
+        if (hash == 0L) {
+            hash = PackedStyle.mix(compiled().contentHash(), Objects.hashCode(fontKey));
+            hash = PackedStyle.mix(hash, fontSize != null ? Float.floatToIntBits(fontSize) : -1L);
+            if (hash == 0L) {
+                hash = 1L;
+            }
+            structuralHash = hash;
+        }
+        return hash;
+    }
+
+    private PackedStyle compile() {
+        PackedStyle target = new PackedStyle();
+        target.setFloat(StyleField.ALPHA, alpha);
+        target.setFloat(StyleField.DISABLED_ALPHA, disabledAlpha);
+        target.setVec2(StyleField.WINDOW_PADDING, windowPadding);
+        target.setFloat(StyleField.WINDOW_ROUNDING, windowRounding);
+        target.setFloat(StyleField.WINDOW_BORDER_SIZE, windowBorderSize);
+        target.setVec2(StyleField.WINDOW_MIN_SIZE, windowMinSize);
+        target.setVec2(StyleField.WINDOW_TITLE_ALIGN, windowTitleAlign);
+        target.setInt(StyleField.WINDOW_MENU_BUTTON_POSITION, windowMenuButtonPosition);
+        target.setFloat(StyleField.CHILD_ROUNDING, childRounding);
+        target.setFloat(StyleField.CHILD_BORDER_SIZE, childBorderSize);
+        target.setFloat(StyleField.POPUP_ROUNDING, popupRounding);
+        target.setFloat(StyleField.POPUP_BORDER_SIZE, popupBorderSize);
+        target.setVec2(StyleField.FRAME_PADDING, framePadding);
+        target.setFloat(StyleField.FRAME_ROUNDING, frameRounding);
+        target.setFloat(StyleField.FRAME_BORDER_SIZE, frameBorderSize);
+        target.setVec2(StyleField.ITEM_SPACING, itemSpacing);
+        target.setVec2(StyleField.ITEM_INNER_SPACING, itemInnerSpacing);
+        target.setVec2(StyleField.CELL_PADDING, cellPadding);
+        target.setVec2(StyleField.TOUCH_EXTRA_PADDING, touchExtraPadding);
+        target.setFloat(StyleField.INDENT_SPACING, indentSpacing);
+        target.setFloat(StyleField.COLUMNS_MIN_SPACING, columnsMinSpacing);
+        target.setFloat(StyleField.SCROLLBAR_SIZE, scrollbarSize);
+        target.setFloat(StyleField.SCROLLBAR_ROUNDING, scrollbarRounding);
+        target.setFloat(StyleField.GRAB_MIN_SIZE, grabMinSize);
+        target.setFloat(StyleField.GRAB_ROUNDING, grabRounding);
+        target.setFloat(StyleField.LOG_SLIDER_DEADZONE, logSliderDeadzone);
+        target.setFloat(StyleField.TAB_ROUNDING, tabRounding);
+        target.setFloat(StyleField.TAB_BORDER_SIZE, tabBorderSize);
+        target.setFloat(StyleField.TAB_MIN_WIDTH_FOR_CLOSE_BUTTON, tabMinWidthForCloseButton);
+        target.setInt(StyleField.COLOR_BUTTON_POSITION, colorButtonPosition);
+        target.setVec2(StyleField.BUTTON_TEXT_ALIGN, buttonTextAlign);
+        target.setVec2(StyleField.SELECTABLE_TEXT_ALIGN, selectableTextAlign);
+        target.setVec2(StyleField.DISPLAY_WINDOW_PADDING, displayWindowPadding);
+        target.setVec2(StyleField.DISPLAY_SAFE_AREA_PADDING, displaySafeAreaPadding);
+        target.setFloat(StyleField.MOUSE_CURSOR_SCALE, mouseCursorScale);
+        target.setBool(StyleField.ANTI_ALIASED_LINES, antiAliasedLines);
+        target.setBool(StyleField.ANTI_ALIASED_LINES_USE_TEX, antiAliasedLinesUseTex);
+        target.setBool(StyleField.ANTI_ALIASED_FILL, antiAliasedFill);
+        target.setFloat(StyleField.CURVE_TESSELLATION_TOL, curveTessellationTol);
+        target.setFloat(StyleField.CIRCLE_TESSELLATION_MAX_ERROR, circleTessellationMaxError);
+        colorPalette.writeTo(target);
+        return target;
     }
 
     public StyleDescriptor withDelta(StyleDelta delta) {
@@ -0,0 +1,258 @@
+package tytoo.minegui.style;
+
+import imgui.ImGuiStyle;
+import imgui.flag.ImGuiStyleVar;
+
+final class StyleField {
+    static final int ALPHA = 0;
+    static final int DISABLED_ALPHA = 1;
+    static final int WINDOW_PADDING = 2;
+    static final int WINDOW_ROUNDING = 3;
+    static final int WINDOW_BORDER_SIZE = 4;
+    static final int WINDOW_MIN_SIZE = 5;
+    static final int WINDOW_TITLE_ALIGN = 6;
+    static final int WINDOW_MENU_BUTTON_POSITION = 7;
+    static final int CHILD_ROUNDING = 8;
+    static final int CHILD_BORDER_SIZE = 9;
+    static final int POPUP_ROUNDING = 10;
+    static final int POPUP_BORDER_SIZE = 11;
+    static final int FRAME_PADDING = 12;
+    static final int FRAME_ROUNDING = 13;
+    static final int FRAME_BORDER_SIZE = 14;
+    static final int ITEM_SPACING = 15;
+    static final int ITEM_INNER_SPACING = 16;
+    static final int CELL_PADDING = 17;
+    static final int TOUCH_EXTRA_PADDING = 18;
+    static final int INDENT_SPACING = 19;
+    static final int COLUMNS_MIN_SPACING = 20;
+    static final int SCROLLBAR_SIZE = 21;
+    static final int SCROLLBAR_ROUNDING = 22;
+    static final int GRAB_MIN_SIZE = 23;
+    static final int GRAB_ROUNDING = 24;
+    static final int LOG_SLIDER_DEADZONE = 25;
+    static final int TAB_ROUNDING = 26;
+    static final int TAB_BORDER_SIZE = 27;
+    static final int TAB_MIN_WIDTH_FOR_CLOSE_BUTTON = 28;
+    static final int COLOR_BUTTON_POSITION = 29;
+    static final int BUTTON_TEXT_ALIGN = 30;
+    static final int SELECTABLE_TEXT_ALIGN = 31;
+    static final int DISPLAY_WINDOW_PADDING = 32;
+    static final int DISPLAY_SAFE_AREA_PADDING = 33;
+    static final int MOUSE_CURSOR_SCALE = 34;
+    static final int ANTI_ALIASED_LINES = 35;
+    static final int ANTI_ALIASED_LINES_USE_TEX = 36;
+    static final int ANTI_ALIASED_FILL = 37;
+    static final int CURVE_TESSELLATION_TOL = 38;
+    static final int CIRCLE_TESSELLATION_MAX_ERROR = 39;
+    static final int COUNT = 40;
+    static final long ALL_FIELDS = (1L << COUNT) - 1L;
+
+    static final int KIND_FLOAT = 0;
+    static final int KIND_VEC2 = 1;
+    static final int KIND_INT = 2;
+    static final int KIND_BOOL = 3;
+
+    private static final int[] KINDS = {
+            KIND_FLOAT, KIND_FLOAT, KIND_VEC2, KIND_FLOAT, KIND_FLOAT,
+            KIND_VEC2, KIND_VEC2, KIND_INT, KIND_FLOAT, KIND_FLOAT,
+            KIND_FLOAT, KIND_FLOAT, KIND_VEC2, KIND_FLOAT, KIND_FLOAT,
+            KIND_VEC2, KIND_VEC2, KIND_VEC2, KIND_VEC2, KIND_FLOAT,
+            KIND_FLOAT, KIND_FLOAT, KIND_FLOAT, KIND_FLOAT, KIND_FLOAT,
+            KIND_FLOAT, KIND_FLOAT, KIND_FLOAT, KIND_FLOAT, KIND_INT,
+            KIND_VEC2, KIND_VEC2, KIND_VEC2, KIND_VEC2, KIND_FLOAT,
+            KIND_BOOL, KIND_BOOL, KIND_BOOL, KIND_FLOAT, KIND_FLOAT
+    };
+    private static final int[] STYLE_VARS = {
+            ImGuiStyleVar.Alpha, ImGuiStyleVar.DisabledAlpha, ImGuiStyleVar.WindowPadding, ImGuiStyleVar.WindowRounding, ImGuiStyleVar.WindowBorderSize,
+            ImGuiStyleVar.WindowMinSize, ImGuiStyleVar.WindowTitleAlign, -1, ImGuiStyleVar.ChildRounding, ImGuiStyleVar.ChildBorderSize,
+            ImGuiStyleVar.PopupRounding, ImGuiStyleVar.PopupBorderSize, ImGuiStyleVar.FramePadding, ImGuiStyleVar.FrameRounding, ImGuiStyleVar.FrameBorderSize,
+            ImGuiStyleVar.ItemSpacing, ImGuiStyleVar.ItemInnerSpacing, ImGuiStyleVar.CellPadding, -1, ImGuiStyleVar.IndentSpacing,
+            -1, ImGuiStyleVar.ScrollbarSize, ImGuiStyleVar.ScrollbarRounding, ImGuiStyleVar.GrabMinSize, ImGuiStyleVar.GrabRounding,
+            -1, ImGuiStyleVar.TabRounding, -1, -1, -1,
+            ImGuiStyleVar.ButtonTextAlign, ImGuiStyleVar.SelectableTextAlign, -1, -1, -1,
+            -1, -1, -1, -1, -1
+    };
+    private static final String[] NAMES = {
+            "alpha", "disabledAlpha", "windowPadding", "windowRounding", "windowBorderSize",
+            "windowMinSize", "windowTitleAlign", "windowMenuButtonPosition", "childRounding", "childBorderSize",
+            "popupRounding", "popupBorderSize", "framePadding", "frameRounding", "frameBorderSize",
+            "itemSpacing", "itemInnerSpacing", "cellPadding", "touchExtraPadding", "indentSpacing",
+            "columnsMinSpacing", "scrollbarSize", "scrollbarRounding", "grabMinSize", "grabRounding",
+            "logSliderDeadzone", "tabRounding", "tabBorderSize", "tabMinWidthForCloseButton", "colorButtonPosition",
+            "buttonTextAlign", "selectableTextAlign", "displayWindowPadding", "displaySafeAreaPadding", "mouseCursorScale",
+            "antiAliasedLines", "antiAliasedLinesUseTex", "antiAliasedFill", "curveTessellationTol", "circleTessellationMaxError"
+    };
+    private static final int[] SLOTS = new int[COUNT];
+    static final int FLOAT_SLOTS;
+    static final int INT_SLOTS;
+    static final long FLOAT_FIELDS;
+    static final long VEC2_FIELDS;
+    static final long INT_FIELDS;
+
+    static {
+        int floatSlots = 0;
+        int intSlots = 0;
+        long floatFields = 0L;
+        long vec2Fields = 0L;
+        long intFields = 0L;
+        for (int field = 0; field < COUNT; field++) {
+            switch (KINDS[field]) {
+                case KIND_FLOAT -> {
+                    SLOTS[field] = floatSlots++;
+                    floatFields |= 1L << field;
+                }
+                case KIND_VEC2 -> {
+                    SLOTS[field] = floatSlots;
+                    floatSlots += 2;
+                    vec2Fields |= 1L << field;
+                }
+                default -> {
+                    SLOTS[field] = intSlots++;
+                    intFields |= 1L << field;
+                }
+            }
+        }
+        FLOAT_SLOTS = floatSlots;
+        INT_SLOTS = intSlots;
+        FLOAT_FIELDS = floatFields;
+        VEC2_FIELDS = vec2Fields;
+        INT_FIELDS = intFields;
+    }
+
+    private StyleField() {
+    }
+
+    static int kind(int field) {
+        return KINDS[field];
+    }
+
+    static int slot(int field) {
+        return SLOTS[field];
+    }
+
+    static int styleVar(int field) {
+        return STYLE_VARS[field];
+    }
+
+    static String name(int field) {
+        return NAMES[field];
+    }
+
+    static boolean usesFloats(int field) {
+        return KINDS[field] == KIND_FLOAT || KINDS[field] == KIND_VEC2;
+    }
+
+    static int width(int field) {
+        return KINDS[field] == KIND_VEC2 ? 2 : 1;
+    }
+
+    static int floatCount(long fields) {
+        return Long.bitCount(fields & FLOAT_FIELDS) + 2 * Long.bitCount(fields & VEC2_FIELDS);
+    }
+
+    static int intCount(long fields) {
+        return Long.bitCount(fields & INT_FIELDS);
+    }
+
+    static void write(ImGuiStyle style, int field, float[] floats, int[] ints) {
+        write(style, field, floats, ints, SLOTS[field]);
+    }
+
+    static void write(ImGuiStyle style, int field, float[] floats, int[] ints, int slot) {
+        switch (field) {
+            case ALPHA -> style.setAlpha(floats[slot]);
+            case DISABLED_ALPHA -> style.setDisabledAlpha(floats[slot]);
+            case WINDOW_PADDING -> style.setWindowPadding(floats[slot], floats[slot + 1]);
+            case WINDOW_ROUNDING -> style.setWindowRounding(floats[slot]);
+            case WINDOW_BORDER_SIZE -> style.setWindowBorderSize(floats[slot]);
+            case WINDOW_MIN_SIZE -> style.setWindowMinSize(floats[slot], floats[slot + 1]);
+            case WINDOW_TITLE_ALIGN -> style.setWindowTitleAlign(floats[slot], floats[slot + 1]);
+            case WINDOW_MENU_BUTTON_POSITION -> style.setWindowMenuButtonPosition(ints[slot]);
+            case CHILD_ROUNDING -> style.setChildRounding(floats[slot]);
+            case CHILD_BORDER_SIZE -> style.setChildBorderSize(floats[slot]);
+            case POPUP_ROUNDING -> style.setPopupRounding(floats[slot]);
+            case POPUP_BORDER_SIZE -> style.setPopupBorderSize(floats[slot]);
+            case FRAME_PADDING -> style.setFramePadding(floats[slot], floats[slot + 1]);
+            case FRAME_ROUNDING -> style.setFrameRounding(floats[slot]);
+            case FRAME_BORDER_SIZE -> style.setFrameBorderSize(floats[slot]);
+            case ITEM_SPACING -> style.setItemSpacing(floats[slot], floats[slot + 1]);
+            case ITEM_INNER_SPACING -> style.setItemInnerSpacing(floats[slot], floats[slot + 1]);
+            case CELL_PADDING -> style.setCellPadding(floats[slot], floats[slot + 1]);
+            case TOUCH_EXTRA_PADDING -> style.setTouchExtraPadding(floats[slot], floats[slot + 1]);
+            case INDENT_SPACING -> style.setIndentSpacing(floats[slot]);
+            case COLUMNS_MIN_SPACING -> style.setColumnsMinSpacing(floats[slot]);
+            case SCROLLBAR_SIZE -> style.setScrollbarSize(floats[slot]);
+            case SCROLLBAR_ROUNDING -> style.setScrollbarRounding(floats[slot]);
+            case GRAB_MIN_SIZE -> style.setGrabMinSize(floats[slot]);
+            case GRAB_ROUNDING -> style.setGrabRounding(floats[slot]);
+            case LOG_SLIDER_DEADZONE -> style.setLogSliderDeadzone(floats[slot]);
+            case TAB_ROUNDING -> style.setTabRounding(floats[slot]);
+            case TAB_BORDER_SIZE -> style.setTabBorderSize(floats[slot]);
+            case TAB_MIN_WIDTH_FOR_CLOSE_BUTTON -> style.setTabMinWidthForCloseButton(floats[slot]);
+            case COLOR_BUTTON_POSITION -> style.setColorButtonPosition(ints[slot]);
+            case BUTTON_TEXT_ALIGN -> style.setButtonTextAlign(floats[slot], floats[slot + 1]);
+            case SELECTABLE_TEXT_ALIGN -> style.setSelectableTextAlign(floats[slot], floats[slot + 1]);
+            case DISPLAY_WINDOW_PADDING -> style.setDisplayWindowPadding(floats[slot], floats[slot + 1]);
+            case DISPLAY_SAFE_AREA_PADDING -> style.setDisplaySafeAreaPadding(floats[slot], floats[slot + 1]);
+            case MOUSE_CURSOR_SCALE -> style.setMouseCursorScale(floats[slot]);
+            case ANTI_ALIASED_LINES -> style.setAntiAliasedLines(ints[slot] != 0);
+            case ANTI_ALIASED_LINES_USE_TEX -> style.setAntiAliasedLinesUseTex(ints[slot] != 0);
+            case ANTI_ALIASED_FILL -> style.setAntiAliasedFill(ints[slot] != 0);
+            case CURVE_TESSELLATION_TOL -> style.setCurveTessellationTol(floats[slot]);
+            case CIRCLE_TESSELLATION_MAX_ERROR -> style.setCircleTessellationMaxError(floats[slot]);
+            default -> throw new IllegalArgumentException("Unknown style field " + field);
+        }
+    }
+
+    static void read(ImGuiStyle style, int field, float[] floats, int[] ints) {
+        int slot = SLOTS[field];
+        switch (field) {
+            case ALPHA -> floats[slot] = style.getAlpha();
+            case DISABLED_ALPHA -> floats[slot] = style.getDisabledAlpha();
+            case WINDOW_PADDING -> readVec2(floats, slot, style.getWindowPaddingX(), style.getWindowPaddingY());
+            case WINDOW_ROUNDING -> floats[slot] = style.getWindowRounding();
+            case WINDOW_BORDER_SIZE -> floats[slot] = style.getWindowBorderSize();
+            case WINDOW_MIN_SIZE -> readVec2(floats, slot, style.getWindowMinSizeX(), style.getWindowMinSizeY());
+            case WINDOW_TITLE_ALIGN -> readVec2(floats, slot, style.getWindowTitleAlignX(), style.getWindowTitleAlignY());
+            case WINDOW_MENU_BUTTON_POSITION -> ints[slot] = style.getWindowMenuButtonPosition();
+            case CHILD_ROUNDING -> floats[slot] = style.getChildRounding();
+            case CHILD_BORDER_SIZE -> floats[slot] = style.getChildBorderSize();
+            case POPUP_ROUNDING -> floats[slot] = style.getPopupRounding();
+            case POPUP_BORDER_SIZE -> floats[slot] = style.getPopupBorderSize();
+            case FRAME_PADDING -> readVec2(floats, slot, style.getFramePaddingX(), style.getFramePaddingY());
+            case FRAME_ROUNDING -> floats[slot] = style.getFrameRounding();
+            case FRAME_BORDER_SIZE -> floats[slot] = style.getFrameBorderSize();
+            case ITEM_SPACING -> readVec2(floats, slot, style.getItemSpacingX(), style.getItemSpacingY());
+            case ITEM_INNER_SPACING -> readVec2(floats, slot, style.getItemInnerSpacingX(), style.getItemInnerSpacingY());
+            case CELL_PADDING -> readVec2(floats, slot, style.getCellPaddingX(), style.getCellPaddingY());
+            case TOUCH_EXTRA_PADDING -> readVec2(floats, slot, style.getTouchExtraPaddingX(), style.getTouchExtraPaddingY());
+            case INDENT_SPACING -> floats[slot] = style.getIndentSpacing();
+            case COLUMNS_MIN_SPACING -> floats[slot] = style.getColumnsMinSpacing();
+            case SCROLLBAR_SIZE -> floats[slot] = style.getScrollbarSize();
+            case SCROLLBAR_ROUNDING -> floats[slot] = style.getScrollbarRounding();
+            case GRAB_MIN_SIZE -> floats[slot] = style.getGrabMinSize();
+            case GRAB_ROUNDING -> floats[slot] = style.getGrabRounding();
+            case LOG_SLIDER_DEADZONE -> floats[slot] = style.getLogSliderDeadzone();
+            case TAB_ROUNDING -> floats[slot] = style.getTabRounding();
+            case TAB_BORDER_SIZE -> floats[slot] = style.getTabBorderSize();
+            case TAB_MIN_WIDTH_FOR_CLOSE_BUTTON -> floats[slot] = style.getTabMinWidthForCloseButton();
+            case COLOR_BUTTON_POSITION -> ints[slot] = style.getColorButtonPosition();
+            case BUTTON_TEXT_ALIGN -> readVec2(floats, slot, style.getButtonTextAlignX(), style.getButtonTextAlignY());
+            case SELECTABLE_TEXT_ALIGN -> readVec2(floats, slot, style.getSelectableTextAlignX(), style.getSelectableTextAlignY());
+            case DISPLAY_WINDOW_PADDING -> readVec2(floats, slot, style.getDisplayWindowPaddingX(), style.getDisplayWindowPaddingY());
+            case DISPLAY_SAFE_AREA_PADDING -> readVec2(floats, slot, style.getDisplaySafeAreaPaddingX(), style.getDisplaySafeAreaPaddingY());
+            case MOUSE_CURSOR_SCALE -> floats[slot] = style.getMouseCursorScale();
+            case ANTI_ALIASED_LINES -> ints[slot] = style.getAntiAliasedLines() ? 1 : 0;
+            case ANTI_ALIASED_LINES_USE_TEX -> ints[slot] = style.getAntiAliasedLinesUseTex() ? 1 : 0;
+            case ANTI_ALIASED_FILL -> ints[slot] = style.getAntiAliasedFill() ? 1 : 0;
+            case CURVE_TESSELLATION_TOL -> floats[slot] = style.getCurveTessellationTol();
+            case CIRCLE_TESSELLATION_MAX_ERROR -> floats[slot] = style.getCircleTessellationMaxError();
+            default -> throw new IllegalArgumentException("Unknown style field " + field);
+        }
+    }
+
+    private static void readVec2(float[] floats, int slot, float x, float y) {
+        floats[slot] = x;
+        floats[slot + 1] = y;
+    }
+}
@@ -1,14 +1,16 @@
 package tytoo.minegui.style;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.util.ResourceId;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.StringWriter;
 
 public final class StyleJsonSerializer {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(() -> new StringWriter(4096));
 
     private StyleJsonSerializer() {
     }
@@ -17,94 +19,119 @@ public final class StyleJsonSerializer {
         if (descriptor == null) {
             return null;
         }
-        JsonObject root = new JsonObject();
+        StringWriter buffer = BUFFER.get();
+        buffer.getBuffer().setLength(0);
+        try {
+            JsonWriter writer = new JsonWriter(buffer);
+            writer.setIndent("  ");
+            writer.setHtmlSafe(true);
+            write(writer, namespace, viewId, styleKey, descriptor);
+            writer.flush();
+        } catch (IOException e) {
+            MineGuiCore.LOGGER.error("Failed to serialize style for {} in {}", viewId, namespace, e);
+            return null;
+        }
+        String json = buffer.toString();
+        if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return json;
+    }
+
+    private static void write(JsonWriter writer, String namespace, String viewId, ResourceId styleKey, StyleDescriptor descriptor) throws IOException {
+        writer.beginObject();
         if (namespace != null && !namespace.isBlank()) {
-            root.addProperty("namespace", namespace);
+            writer.name("namespace").value(namespace);
         }
         if (viewId != null && !viewId.isBlank()) {
-            root.addProperty("viewId", viewId);
+            writer.name("viewId").value(viewId);
         }
         if (styleKey != null) {
-            root.addProperty("styleKey", styleKey.toString());
+            writer.name("styleKey").value(styleKey.toString());
         }
 
         ResourceId fontKey = descriptor.getFontKey();
         if (fontKey != null) {
-            root.addProperty("fontKey", fontKey.toString());
+            writer.name("fontKey").value(fontKey.toString());
         }
         Float fontSize = descriptor.getFontSize();
         if (fontSize != null) {
-            root.addProperty("fontSize", fontSize);
+            writeFloat(writer.name("fontSize"), fontSize);
         }
 
-        root.addProperty("alpha", descriptor.getAlpha());
-        root.addProperty("disabledAlpha", descriptor.getDisabledAlpha());
-        root.add("windowPadding", vec(descriptor.getWindowPadding()));
-        root.addProperty("windowRounding", descriptor.getWindowRounding());
-        root.addProperty("windowBorderSize", descriptor.getWindowBorderSize());
-        root.add("windowMinSize", vec(descriptor.getWindowMinSize()));
-        root.add("windowTitleAlign", vec(descriptor.getWindowTitleAlign()));
-        root.addProperty("windowMenuButtonPosition", descriptor.getWindowMenuButtonPosition());
-        root.addProperty("childRounding", descriptor.getChildRounding());
-        root.addProperty("childBorderSize", descriptor.getChildBorderSize());
-        root.addProperty("popupRounding", descriptor.getPopupRounding());
-        root.addProperty("popupBorderSize", descriptor.getPopupBorderSize());
-        root.add("framePadding", vec(descriptor.getFramePadding()));
-        root.addProperty("frameRounding", descriptor.getFrameRounding());
-        root.addProperty("frameBorderSize", descriptor.getFrameBorderSize());
-        root.add("itemSpacing", vec(descriptor.getItemSpacing()));
-        root.add("itemInnerSpacing", vec(descriptor.getItemInnerSpacing()));
-        root.add("cellPadding", vec(descriptor.getCellPadding()));
-        root.add("touchExtraPadding", vec(descriptor.getTouchExtraPadding()));
-        root.addProperty("indentSpacing", descriptor.getIndentSpacing());
-        root.addProperty("columnsMinSpacing", descriptor.getColumnsMinSpacing());
-        root.addProperty("scrollbarSize", descriptor.getScrollbarSize());
-        root.addProperty("scrollbarRounding", descriptor.getScrollbarRounding());
-        root.addProperty("grabMinSize", descriptor.getGrabMinSize());
-        root.addProperty("grabRounding", descriptor.getGrabRounding());
-        root.addProperty("logSliderDeadzone", descriptor.getLogSliderDeadzone());
-        root.addProperty("tabRounding", descriptor.getTabRounding());
-        root.addProperty("tabBorderSize", descriptor.getTabBorderSize());
-        root.addProperty("tabMinWidthForCloseButton", descriptor.getTabMinWidthForCloseButton());
-        root.addProperty("colorButtonPosition", descriptor.getColorButtonPosition());
-        root.add("buttonTextAlign", vec(descriptor.getButtonTextAlign()));
-        root.add("selectableTextAlign", vec(descriptor.getSelectableTextAlign()));
-        root.add("displayWindowPadding", vec(descriptor.getDisplayWindowPadding()));
-        root.add("displaySafeAreaPadding", vec(descriptor.getDisplaySafeAreaPadding()));
-        root.addProperty("mouseCursorScale", descriptor.getMouseCursorScale());
-        root.addProperty("antiAliasedLines", descriptor.isAntiAliasedLines());
-        root.addProperty("antiAliasedLinesUseTex", descriptor.isAntiAliasedLinesUseTex());
-        root.addProperty("antiAliasedFill", descriptor.isAntiAliasedFill());
-        root.addProperty("curveTessellationTol", descriptor.getCurveTessellationTol());
-        root.addProperty("circleTessellationMaxError", descriptor.getCircleTessellationMaxError());
+        writeFloat(writer.name("alpha"), descriptor.getAlpha());
+        writeFloat(writer.name("disabledAlpha"), descriptor.getDisabledAlpha());
+        writeVec(writer.name("windowPadding"), descriptor.getWindowPadding());
+        writeFloat(writer.name("windowRounding"), descriptor.getWindowRounding());
+        writeFloat(writer.name("windowBorderSize"), descriptor.getWindowBorderSize());
+        writeVec(writer.name("windowMinSize"), descriptor.getWindowMinSize());
+        writeVec(writer.name("windowTitleAlign"), descriptor.getWindowTitleAlign());
+        writer.name("windowMenuButtonPosition").value(descriptor.getWindowMenuButtonPosition());
+        writeFloat(writer.name("childRounding"), descriptor.getChildRounding());
+        writeFloat(writer.name("childBorderSize"), descriptor.getChildBorderSize());
+        writeFloat(writer.name("popupRounding"), descriptor.getPopupRounding());
+        writeFloat(writer.name("popupBorderSize"), descriptor.getPopupBorderSize());
+        writeVec(writer.name("framePadding"), descriptor.getFramePadding());
+        writeFloat(writer.name("frameRounding"), descriptor.getFrameRounding());
+        writeFloat(writer.name("frameBorderSize"), descriptor.getFrameBorderSize());
+        writeVec(writer.name("itemSpacing"), descriptor.getItemSpacing());
+        writeVec(writer.name("itemInnerSpacing"), descriptor.getItemInnerSpacing());
+        writeVec(writer.name("cellPadding"), descriptor.getCellPadding());
+        writeVec(writer.name("touchExtraPadding"), descriptor.getTouchExtraPadding());
+        writeFloat(writer.name("indentSpacing"), descriptor.getIndentSpacing());
+        writeFloat(writer.name("columnsMinSpacing"), descriptor.getColumnsMinSpacing());
+        writeFloat(writer.name("scrollbarSize"), descriptor.getScrollbarSize());
+        writeFloat(writer.name("scrollbarRounding"), descriptor.getScrollbarRounding());
+        writeFloat(writer.name("grabMinSize"), descriptor.getGrabMinSize());
+        writeFloat(writer.name("grabRounding"), descriptor.getGrabRounding());
+        writeFloat(writer.name("logSliderDeadzone"), descriptor.getLogSliderDeadzone());
+        writeFloat(writer.name("tabRounding"), descriptor.getTabRounding());
+        writeFloat(writer.name("tabBorderSize"), descriptor.getTabBorderSize());
+        writeFloat(writer.name("tabMinWidthForCloseButton"), descriptor.getTabMinWidthForCloseButton());
+        writer.name("colorButtonPosition").value(descriptor.getColorButtonPosition());
+        writeVec(writer.name("buttonTextAlign"), descriptor.getButtonTextAlign());
+        writeVec(writer.name("selectableTextAlign"), descriptor.getSelectableTextAlign());
+        writeVec(writer.name("displayWindowPadding"), descriptor.getDisplayWindowPadding());
+        writeVec(writer.name("displaySafeAreaPadding"), descriptor.getDisplaySafeAreaPadding());
+        writeFloat(writer.name("mouseCursorScale"), descriptor.getMouseCursorScale());
+        writer.name("antiAliasedLines").value(descriptor.isAntiAliasedLines());
+        writer.name("antiAliasedLinesUseTex").value(descriptor.isAntiAliasedLinesUseTex());
+        writer.name("antiAliasedFill").value(descriptor.isAntiAliasedFill());
+        writeFloat(writer.name("curveTessellationTol"), descriptor.getCurveTessellationTol());
+        writeFloat(writer.name("circleTessellationMaxError"), descriptor.getCircleTessellationMaxError());
 
-        JsonObject colors = colors(descriptor.getColorPalette());
-        if (colors != null) {
-            root.add("colors", colors);
+        ColorPalette palette = descriptor.getColorPalette();
+        if (palette != null && !palette.isEmpty()) {
+            writer.name("colors").beginObject();
+            char[] hex = new char[9];
+            long pending = palette.mask();
+            while (pending != 0L) {
+                int index = Long.numberOfTrailingZeros(pending);
+                pending &= pending - 1L;
+                writer.name(Integer.toString(index)).value(toHex(palette.getColor(index, 0), hex));
+            }
+            writer.endObject();
         }
-
-        return GSON.toJson(root);
+        writer.endObject();
     }
 
-    private static JsonObject vec(Vec2 value) {
-        JsonObject vec = new JsonObject();
-        vec.addProperty("x", value.x());
-        vec.addProperty("y", value.y());
-        return vec;
+    private static void writeFloat(JsonWriter writer, float value) throws IOException {
+        writer.jsonValue(Float.toString(value));
     }
 
-    private static JsonObject colors(ColorPalette palette) {
-        if (palette == null || palette.isEmpty()) {
-            return null;
-        }
-        JsonObject colors = new JsonObject();
-        for (Map.Entry<Integer, Integer> entry : palette.getColors().entrySet()) {
-            colors.addProperty(String.valueOf(entry.getKey()), toHex(entry.getValue()));
-        }
-        return colors;
+    private static void writeVec(JsonWriter writer, Vec2 value) throws IOException {
+        writer.beginObject();
+        writeFloat(writer.name("x"), value.x());
+        writeFloat(writer.name("y"), value.y());
+        writer.endObject();
     }
 
-    private static String toHex(int color) {
-        return String.format("#%08X", color);
+    static String toHex(int color, char[] buffer) {
+        buffer[0] = '#';
+        for (int index = 8; index >= 1; index--) {
+            buffer[index] = HEX_DIGITS[color & 0xF];
+            color >>>= 4;
+        }
+        return new String(buffer, 0, 9);
     }
 }
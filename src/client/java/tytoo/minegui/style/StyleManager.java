@@ -2,7 +2,6 @@ package tytoo.minegui.style;
 
 import imgui.ImFont;
 import imgui.ImGui;
-import imgui.ImGuiStyle;
 import lombok.Getter;
 import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.config.ConfigFeature;
@@ -17,6 +16,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 public final class StyleManager {
@@ -24,13 +24,22 @@ public final class StyleManager {
     private static final ConcurrentMap<ResourceId, StyleDescriptor> DESCRIPTOR_REGISTRY = new ConcurrentHashMap<>();
     private static final ThreadLocal<StyleManager> ACTIVE = new ThreadLocal<>();
     private static final CopyOnWriteArrayList<Consumer<StyleDescriptor>> GLOBAL_DESCRIPTOR_READY_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final PackedStyle NATIVE_SHADOW = new PackedStyle();
+    private static final ThreadLocal<PackedStyle> APPLY_BUFFER = ThreadLocal.withInitial(PackedStyle::new);
+    private static final ThreadLocal<PackedStyle> MATCH_BUFFER = ThreadLocal.withInitial(PackedStyle::new);
     private static volatile StyleDescriptor globalDescriptorSnapshot;
 
     private final String namespace;
     private final ThreadLocal<Deque<StyleDelta>> styleStack = ThreadLocal.withInitial(ArrayDeque::new);
     private final ThreadLocal<ImFont> activeFont = new ThreadLocal<>();
+    private final ThreadLocal<FontMemo> fontMemo = new ThreadLocal<>();
+    private final AtomicLong applyCount = new AtomicLong();
+    private final AtomicLong writtenFields = new AtomicLong();
+    private final AtomicLong skippedFields = new AtomicLong();
     private volatile StyleDescriptor globalDescriptor;
     @Getter
+    private volatile StyleScopeMode scopeMode = StyleScopeMode.REAPPLY;
+    @Getter
     private volatile ResourceId globalStyleKey;
 
     private StyleManager(String namespace) {
@@ -57,6 +66,7 @@ public final class StyleManager {
     public static void registerDescriptor(ResourceId key, StyleDescriptor descriptor) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(descriptor, "descriptor");
+        descriptor.compiled();
         DESCRIPTOR_REGISTRY.put(key, descriptor);
     }
 
@@ -108,6 +118,10 @@ public final class StyleManager {
         }
     }
 
+    public static void invalidateNativeStyle() {
+        NATIVE_SHADOW.clear();
+    }
+
     public static void pushActive(StyleManager manager) {
         ACTIVE.set(manager);
     }
@@ -155,14 +169,31 @@ public final class StyleManager {
         applyStyleKey(key, false);
     }
 
+    public void setScopeMode(StyleScopeMode mode) {
+        this.scopeMode = mode != null ? mode : StyleScopeMode.REAPPLY;
+    }
+
     StyleScope pushRaw(StyleDelta delta) {
+        return pushRaw(delta, scopeMode);
+    }
+
+    StyleScope pushRaw(StyleDelta delta, StyleScopeMode mode) {
         Objects.requireNonNull(delta, "delta");
         styleStack.get().push(delta);
-        apply();
-        return new StyleScope(delta);
+        if (mode != StyleScopeMode.NATIVE) {
+            apply();
+            return new StyleScope(delta, null);
+        }
+        NativeStyleScope nativeScope = NativeStyleScope.push(delta, resolveScopeFont(delta));
+        NATIVE_SHADOW.invalidate(nativeScope.touchedFields(), nativeScope.touchedColors());
+        return new StyleScope(delta, nativeScope);
     }
 
-    void pop(StyleDelta expected) {
+    void pop(StyleDelta expected, NativeStyleScope nativeScope) {
+        if (nativeScope != null) {
+            nativeScope.pop();
+            NATIVE_SHADOW.invalidate(nativeScope.touchedFields(), nativeScope.touchedColors());
+        }
         Deque<StyleDelta> stack = styleStack.get();
         if (stack.isEmpty()) {
             apply();
@@ -171,23 +202,28 @@ public final class StyleManager {
         StyleDelta popped = stack.pop();
         if (popped != expected) {
             stack.clear();
+            apply();
+            return;
+        }
+        if (nativeScope == null) {
+            apply();
         }
-        apply();
     }
 
     public void apply() {
-        ImGuiStyle nativeStyle = ImGui.getStyle();
         StyleDescriptor descriptor = resolveDescriptor();
         ResourceId fontKey = descriptor != null ? descriptor.getFontKey() : null;
         Float fontSize = descriptor != null ? descriptor.getFontSize() : null;
+        PackedStyle target = APPLY_BUFFER.get();
+        target.clear();
         if (descriptor != null) {
-            descriptor.applyTo(nativeStyle);
+            descriptor.writeTo(target);
         }
         Deque<StyleDelta> stack = styleStack.get();
         if (!stack.isEmpty()) {
             for (Iterator<StyleDelta> iterator = stack.descendingIterator(); iterator.hasNext(); ) {
                 StyleDelta delta = iterator.next();
-                delta.applyTo(nativeStyle);
+                delta.writeTo(target);
                 if (delta.getFontKey() != null) {
                     fontKey = delta.getFontKey();
                 }
@@ -196,23 +232,97 @@ public final class StyleManager {
                 }
             }
         }
+        int written = target.writeChanges(ImGui.getStyle(), NATIVE_SHADOW);
+        applyCount.incrementAndGet();
+        writtenFields.addAndGet(written);
+        skippedFields.addAndGet(target.entryCount() - written);
         applyFont(fontKey, fontSize);
     }
 
+    public StyleApplyStats applyStats() {
+        return new StyleApplyStats(applyCount.get(), writtenFields.get(), skippedFields.get());
+    }
+
+    public void resetApplyStats() {
+        applyCount.set(0L);
+        writtenFields.set(0L);
+        skippedFields.set(0L);
+    }
+
     public Optional<StyleDescriptor> getEffectiveDescriptor() {
         StyleDescriptor descriptor = resolveDescriptor();
         if (descriptor == null) {
             return Optional.empty();
         }
-        StyleDescriptor effective = descriptor;
+        Deque<StyleDelta> stack = styleStack.get();
+        if (stack.isEmpty()) {
+            return Optional.of(descriptor);
+        }
+        PackedStyle effective = new PackedStyle();
+        effective.copyFrom(descriptor.compiled());
+        ResourceId fontKey = descriptor.getFontKey();
+        Float fontSize = descriptor.getFontSize();
+        boolean paletteOverridden = false;
+        for (Iterator<StyleDelta> iterator = stack.descendingIterator(); iterator.hasNext(); ) {
+            StyleDelta delta = iterator.next();
+            delta.writeTo(effective);
+            if (delta.getColorPalette() != null && !delta.getColorPalette().isEmpty()) {
+                paletteOverridden = true;
+            }
+            if (delta.getFontKey() != null) {
+                fontKey = delta.getFontKey();
+            }
+            if (delta.getFontSize() != null) {
+                fontSize = delta.getFontSize();
+            }
+        }
+        ColorPalette palette = paletteOverridden
+                ? ColorPalette.fromPacked(effective.colors, effective.colorMask)
+                : descriptor.getColorPalette();
+        return Optional.of(StyleDescriptor.fromPacked(effective, descriptor, palette, fontKey, fontSize));
+    }
+
+    public boolean effectiveStyleMatches(StyleDescriptor snapshot) {
+        StyleDescriptor descriptor = resolveDescriptor();
+        if (descriptor == null || snapshot == null) {
+            return descriptor == snapshot;
+        }
+        Deque<StyleDelta> stack = styleStack.get();
+        if (stack.isEmpty() && descriptor == snapshot) {
+            return true;
+        }
+        PackedStyle effective = MATCH_BUFFER.get();
+        effective.copyFrom(descriptor.compiled());
+        ResourceId fontKey = descriptor.getFontKey();
+        Float fontSize = descriptor.getFontSize();
+        for (Iterator<StyleDelta> iterator = stack.descendingIterator(); iterator.hasNext(); ) {
+            StyleDelta delta = iterator.next();
+            delta.writeTo(effective);
+            if (delta.getFontKey() != null) {
+                fontKey = delta.getFontKey();
+            }
+            if (delta.getFontSize() != null) {
+                fontSize = delta.getFontSize();
+            }
+        }
+        return Objects.equals(fontKey, snapshot.getFontKey())
+                && Objects.equals(fontSize, snapshot.getFontSize())
+                && effective.sameContent(snapshot.compiled());
+    }
+
+    public long effectiveStyleSignature() {
+        StyleDescriptor descriptor = resolveDescriptor();
+        if (descriptor == null) {
+            return 0L;
+        }
+        long signature = descriptor.structuralHash();
         Deque<StyleDelta> stack = styleStack.get();
         if (!stack.isEmpty()) {
             for (Iterator<StyleDelta> iterator = stack.descendingIterator(); iterator.hasNext(); ) {
-                StyleDelta delta = iterator.next();
-                effective = delta.resolve(effective);
+                signature = PackedStyle.mix(signature, iterator.next().structuralHash());
             }
         }
-        return Optional.of(effective);
+        return signature;
     }
 
     private StyleDescriptor resolveDescriptor() {
@@ -227,9 +337,27 @@ public final class StyleManager {
         return descriptor;
     }
 
+    private ImFont resolveScopeFont(StyleDelta delta) {
+        if (delta.getFontKey() == null && delta.getFontSize() == null) {
+            return null;
+        }
+        StyleDescriptor descriptor = resolveDescriptor();
+        ResourceId fontKey = descriptor != null ? descriptor.getFontKey() : null;
+        Float fontSize = descriptor != null ? descriptor.getFontSize() : null;
+        for (Iterator<StyleDelta> iterator = styleStack.get().descendingIterator(); iterator.hasNext(); ) {
+            StyleDelta entry = iterator.next();
+            if (entry.getFontKey() != null) {
+                fontKey = entry.getFontKey();
+            }
+            if (entry.getFontSize() != null) {
+                fontSize = entry.getFontSize();
+            }
+        }
+        return FontLibrary.getInstance().ensureFont(fontKey, fontSize);
+    }
+
     private void applyFont(ResourceId fontKey, Float fontSize) {
-        FontLibrary fontLibrary = FontLibrary.getInstance();
-        ImFont targetFont = fontLibrary.ensureFont(fontKey, fontSize);
+        ImFont targetFont = resolveFont(fontKey, fontSize);
         ImFont currentFont = activeFont.get();
         if (targetFont == null || targetFont == currentFont) {
             return;
@@ -238,8 +366,23 @@ public final class StyleManager {
         activeFont.set(targetFont);
     }
 
+    private ImFont resolveFont(ResourceId fontKey, Float fontSize) {
+        FontLibrary fontLibrary = FontLibrary.getInstance();
+        int generation = fontLibrary.fontGeneration();
+        FontMemo memo = fontMemo.get();
+        if (memo != null && memo.matches(fontKey, fontSize, generation)) {
+            return memo.font();
+        }
+        ImFont font = fontLibrary.ensureFont(fontKey, fontSize);
+        if (font != null) {
+            fontMemo.set(new FontMemo(fontKey, fontSize, font, generation));
+        }
+        return font;
+    }
+
     private void resetActiveFont() {
         activeFont.remove();
+        fontMemo.remove();
     }
 
     private NamespaceConfigService configService() {
@@ -283,10 +426,12 @@ public final class StyleManager {
 
     public final class StyleScope implements AutoCloseable {
         private final StyleDelta delta;
+        private final NativeStyleScope nativeScope;
         private boolean closed;
 
-        private StyleScope(StyleDelta delta) {
+        private StyleScope(StyleDelta delta, NativeStyleScope nativeScope) {
             this.delta = delta;
+            this.nativeScope = nativeScope;
         }
 
         @Override
@@ -295,7 +440,13 @@ public final class StyleManager {
                 return;
             }
             closed = true;
-            pop(delta);
+            pop(delta, nativeScope);
+        }
+    }
+
+    private record FontMemo(ResourceId fontKey, Float fontSize, ImFont font, int generation) {
+        private boolean matches(ResourceId key, Float size, int currentGeneration) {
+            return generation == currentGeneration && Objects.equals(fontKey, key) && Objects.equals(fontSize, size);
         }
     }
 }
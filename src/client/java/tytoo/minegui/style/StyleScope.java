@@ -15,6 +15,17 @@ public final class StyleScope implements AutoCloseable {
         return new StyleScope(scope);
     }
 
+    public static StyleScope push(StyleDelta delta, StyleScopeMode mode) {
+        Objects.requireNonNull(delta, "delta");
+        Objects.requireNonNull(mode, "mode");
+        StyleManager.StyleScope scope = StyleManager.current().pushRaw(delta, mode);
+        return new StyleScope(scope);
+    }
+
+    public static StyleScope pushNative(StyleDelta delta) {
+        return push(delta, StyleScopeMode.NATIVE);
+    }
+
     @Override
     public void close() {
         delegate.close();
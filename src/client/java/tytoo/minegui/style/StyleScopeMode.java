@@ -0,0 +1,6 @@
+package tytoo.minegui.style;
+
+public enum StyleScopeMode {
+    REAPPLY,
+    NATIVE
+}
@@ -47,41 +47,18 @@ final class StyleValidation {
 
     static void validateDelta(StyleDelta delta) {
         Objects.requireNonNull(delta, "delta");
-        ensureFinite(delta.getAlpha(), "alpha");
-        ensureFinite(delta.getDisabledAlpha(), "disabledAlpha");
-        ensureFinite(delta.getWindowPadding(), "windowPadding");
-        ensureFinite(delta.getWindowRounding(), "windowRounding");
-        ensureFinite(delta.getWindowBorderSize(), "windowBorderSize");
-        ensureFinite(delta.getWindowMinSize(), "windowMinSize");
-        ensureFinite(delta.getWindowTitleAlign(), "windowTitleAlign");
-        ensureFinite(delta.getChildRounding(), "childRounding");
-        ensureFinite(delta.getChildBorderSize(), "childBorderSize");
-        ensureFinite(delta.getPopupRounding(), "popupRounding");
-        ensureFinite(delta.getPopupBorderSize(), "popupBorderSize");
-        ensureFinite(delta.getFramePadding(), "framePadding");
-        ensureFinite(delta.getFrameRounding(), "frameRounding");
-        ensureFinite(delta.getFrameBorderSize(), "frameBorderSize");
-        ensureFinite(delta.getItemSpacing(), "itemSpacing");
-        ensureFinite(delta.getItemInnerSpacing(), "itemInnerSpacing");
-        ensureFinite(delta.getCellPadding(), "cellPadding");
-        ensureFinite(delta.getTouchExtraPadding(), "touchExtraPadding");
-        ensureFinite(delta.getIndentSpacing(), "indentSpacing");
-        ensureFinite(delta.getColumnsMinSpacing(), "columnsMinSpacing");
-        ensureFinite(delta.getScrollbarSize(), "scrollbarSize");
-        ensureFinite(delta.getScrollbarRounding(), "scrollbarRounding");
-        ensureFinite(delta.getGrabMinSize(), "grabMinSize");
-        ensureFinite(delta.getGrabRounding(), "grabRounding");
-        ensureFinite(delta.getLogSliderDeadzone(), "logSliderDeadzone");
-        ensureFinite(delta.getTabRounding(), "tabRounding");
-        ensureFinite(delta.getTabBorderSize(), "tabBorderSize");
-        ensureFinite(delta.getTabMinWidthForCloseButton(), "tabMinWidthForCloseButton");
-        ensureFinite(delta.getButtonTextAlign(), "buttonTextAlign");
-        ensureFinite(delta.getSelectableTextAlign(), "selectableTextAlign");
-        ensureFinite(delta.getDisplayWindowPadding(), "displayWindowPadding");
-        ensureFinite(delta.getDisplaySafeAreaPadding(), "displaySafeAreaPadding");
-        ensureFinite(delta.getMouseCursorScale(), "mouseCursorScale");
-        ensureFinite(delta.getCurveTessellationTol(), "curveTessellationTol");
-        ensureFinite(delta.getCircleTessellationMaxError(), "circleTessellationMaxError");
+        int floatCursor = 0;
+        long pending = delta.fieldMask & (StyleField.FLOAT_FIELDS | StyleField.VEC2_FIELDS);
+        while (pending != 0L) {
+            int field = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1L;
+            if (StyleField.kind(field) == StyleField.KIND_VEC2) {
+                ensureFinite(delta.floats[floatCursor++], StyleField.name(field) + ".x");
+                ensureFinite(delta.floats[floatCursor++], StyleField.name(field) + ".y");
+            } else {
+                ensureFinite(delta.floats[floatCursor++], StyleField.name(field));
+            }
+        }
     }
 
     private static void ensureFinite(float value, String name) {
@@ -90,13 +67,6 @@ final class StyleValidation {
         }
     }
 
-    private static void ensureFinite(Float value, String name) {
-        if (value == null) {
-            return;
-        }
-        ensureFinite(value.floatValue(), name);
-    }
-
     private static void ensureFinite(Vec2 value, String name) {
         if (value == null) {
             return;
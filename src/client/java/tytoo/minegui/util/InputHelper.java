@@ -2,9 +2,15 @@ package tytoo.minegui.util;
 
 import org.lwjgl.glfw.GLFW;
 
+import java.util.Arrays;
+
 @SuppressWarnings("unused")
 public final class InputHelper {
 
+    private static final int KEY_TABLE_SIZE = GLFW.GLFW_KEY_LAST + 1;
+    private static final long[] KEY_STATE = new long[(KEY_TABLE_SIZE + Long.SIZE - 1) / Long.SIZE];
+    private static volatile int[] qwertyTable;
+
     private InputHelper() {
     }
 
@@ -13,61 +19,83 @@ public final class InputHelper {
             return false;
         }
         int targetFinalKeyCode = remapToQwerty(targetKeyCode);
-        long handle = McClientBridge.windowHandle();
-        return handle != -1L && GLFW.glfwGetKey(handle, targetFinalKeyCode) == GLFW.GLFW_PRESS;
+        if (targetFinalKeyCode < 0 || targetFinalKeyCode >= KEY_TABLE_SIZE) {
+            return false;
+        }
+        return (KEY_STATE[targetFinalKeyCode >>> 6] & (1L << targetFinalKeyCode)) != 0L;
     }
 
     public static int toQwerty(int keyCode) {
         return remapToQwerty(keyCode);
     }
 
+    public static void onKeyEvent(int keyCode, int action) {
+        if (keyCode < 0 || keyCode >= KEY_TABLE_SIZE) {
+            return;
+        }
+        long bit = 1L << keyCode;
+        if (action == GLFW.GLFW_RELEASE) {
+            KEY_STATE[keyCode >>> 6] &= ~bit;
+        } else {
+            KEY_STATE[keyCode >>> 6] |= bit;
+        }
+    }
+
+    public static void onFocusChanged(boolean focused) {
+        Arrays.fill(KEY_STATE, 0L);
+        if (focused) {
+            qwertyTable = null;
+        }
+    }
+
     private static int remapToQwerty(int localKeyCode) {
-        if (localKeyCode == GLFW.GLFW_KEY_UNKNOWN) {
-            return GLFW.GLFW_KEY_UNKNOWN;
+        if (localKeyCode < 0 || localKeyCode >= KEY_TABLE_SIZE) {
+            return localKeyCode;
         }
+        int[] table = qwertyTable;
+        if (table == null) {
+            table = buildQwertyTable();
+            qwertyTable = table;
+        }
+        return table[localKeyCode];
+    }
+
+    private static int[] buildQwertyTable() {
+        int[] table = new int[KEY_TABLE_SIZE];
+        for (int keyCode = 0; keyCode < KEY_TABLE_SIZE; keyCode++) {
+            table[keyCode] = isPrintableKey(keyCode) ? lookupQwerty(keyCode) : keyCode;
+        }
+        return table;
+    }
+
+    private static boolean isPrintableKey(int keyCode) {
+        return keyCode == GLFW.GLFW_KEY_APOSTROPHE
+                || (keyCode >= GLFW.GLFW_KEY_COMMA && keyCode <= GLFW.GLFW_KEY_9)
+                || keyCode == GLFW.GLFW_KEY_SEMICOLON
+                || keyCode == GLFW.GLFW_KEY_EQUAL
+                || (keyCode >= GLFW.GLFW_KEY_A && keyCode <= GLFW.GLFW_KEY_RIGHT_BRACKET)
+                || keyCode == GLFW.GLFW_KEY_GRAVE_ACCENT
+                || keyCode == GLFW.GLFW_KEY_WORLD_1
+                || keyCode == GLFW.GLFW_KEY_WORLD_2
+                || (keyCode >= GLFW.GLFW_KEY_KP_0 && keyCode <= GLFW.GLFW_KEY_KP_EQUAL);
+    }
+
+    private static int lookupQwerty(int localKeyCode) {
         String keyName = GLFW.glfwGetKeyName(localKeyCode, 0);
-        if (keyName == null || keyName.isEmpty()) {
+        if (keyName == null || keyName.length() != 1) {
             return localKeyCode;
         }
-        return switch (keyName) {
-            case "0" -> GLFW.GLFW_KEY_0;
-            case "1" -> GLFW.GLFW_KEY_1;
-            case "2" -> GLFW.GLFW_KEY_2;
-            case "3" -> GLFW.GLFW_KEY_3;
-            case "4" -> GLFW.GLFW_KEY_4;
-            case "5" -> GLFW.GLFW_KEY_5;
-            case "6" -> GLFW.GLFW_KEY_6;
-            case "7" -> GLFW.GLFW_KEY_7;
-            case "8" -> GLFW.GLFW_KEY_8;
-            case "9" -> GLFW.GLFW_KEY_9;
-            case "A", "a" -> GLFW.GLFW_KEY_A;
-            case "B", "b" -> GLFW.GLFW_KEY_B;
-            case "C", "c" -> GLFW.GLFW_KEY_C;
-            case "D", "d" -> GLFW.GLFW_KEY_D;
-            case "E", "e" -> GLFW.GLFW_KEY_E;
-            case "F", "f" -> GLFW.GLFW_KEY_F;
-            case "G", "g" -> GLFW.GLFW_KEY_G;
-            case "H", "h" -> GLFW.GLFW_KEY_H;
-            case "I", "i" -> GLFW.GLFW_KEY_I;
-            case "J", "j" -> GLFW.GLFW_KEY_J;
-            case "K", "k" -> GLFW.GLFW_KEY_K;
-            case "L", "l" -> GLFW.GLFW_KEY_L;
-            case "M", "m" -> GLFW.GLFW_KEY_M;
-            case "N", "n" -> GLFW.GLFW_KEY_N;
-            case "O", "o" -> GLFW.GLFW_KEY_O;
-            case "P", "p" -> GLFW.GLFW_KEY_P;
-            case "Q", "q" -> GLFW.GLFW_KEY_Q;
-            case "R", "r" -> GLFW.GLFW_KEY_R;
-            case "S", "s" -> GLFW.GLFW_KEY_S;
-            case "T", "t" -> GLFW.GLFW_KEY_T;
-            case "U", "u" -> GLFW.GLFW_KEY_U;
-            case "V", "v" -> GLFW.GLFW_KEY_V;
-            case "W", "w" -> GLFW.GLFW_KEY_W;
-            case "X", "x" -> GLFW.GLFW_KEY_X;
-            case "Y", "y" -> GLFW.GLFW_KEY_Y;
-            case "Z", "z" -> GLFW.GLFW_KEY_Z;
-            default -> localKeyCode;
-        };
+        char symbol = keyName.charAt(0);
+        if (symbol >= '0' && symbol <= '9') {
+            return GLFW.GLFW_KEY_0 + (symbol - '0');
+        }
+        if (symbol >= 'a' && symbol <= 'z') {
+            return GLFW.GLFW_KEY_A + (symbol - 'a');
+        }
+        if (symbol >= 'A' && symbol <= 'Z') {
+            return GLFW.GLFW_KEY_A + (symbol - 'A');
+        }
+        return localKeyCode;
     }
 
     public static boolean isUndo() {
@@ -5,6 +5,7 @@ import lombok.Setter;
 import net.minecraft.util.Identifier;
 import tytoo.minegui.MineGuiCore;
 import tytoo.minegui.layout.LayoutApi;
+import tytoo.minegui.manager.UIManager;
 import tytoo.minegui.manager.ViewSaveManager;
 import tytoo.minegui.runtime.MineGuiNamespaceContext;
 import tytoo.minegui.runtime.MineGuiNamespaces;
@@ -30,6 +31,7 @@ public abstract class View {
     @Getter
     private String namespace;
     private ViewSaveManager viewSaveManager;
+    private UIManager uiManager;
     @Getter
     private CursorPolicy cursorPolicy;
     private boolean cursorPolicyExplicit;
@@ -89,6 +91,10 @@ public abstract class View {
         setVisible(false);
     }
 
+    public void requestRedraw() {
+        UIManager.requestRedraw();
+    }
+
     public void toggleVisibility() {
         setVisible(!visible);
     }
@@ -118,6 +124,7 @@ public abstract class View {
     public void attach(String namespace, ViewSaveManager saveManager) {
         this.namespace = namespace;
         this.viewSaveManager = saveManager;
+        this.uiManager = namespace != null ? UIManager.get(namespace) : null;
         this.layoutNamespaceWarningLogged = false;
         this.layoutContextWarningLogged = false;
     }
@@ -125,6 +132,7 @@ public abstract class View {
     public void detach() {
         this.namespace = null;
         this.viewSaveManager = null;
+        this.uiManager = null;
         this.layoutNamespaceWarningLogged = false;
         this.layoutContextWarningLogged = false;
     }
@@ -134,6 +142,9 @@ public abstract class View {
             return;
         }
         this.visible = visible;
+        if (uiManager != null) {
+            uiManager.onViewVisibilityChanged(this);
+        }
         if (visible) {
             onOpen();
             cursorPolicy.onOpen(this);